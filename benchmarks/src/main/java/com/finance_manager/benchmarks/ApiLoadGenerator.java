@@ -0,0 +1,189 @@
+package com.finance_manager.benchmarks;
+
+import com.finance_manager.api.ApiServer;
+import com.finance_manager.metrics.LatencyHistogram;
+import com.finance_manager.service.ExpenseService;
+import com.finance_manager.service.IncomeService;
+import com.finance_manager.service.LedgerService;
+import com.finance_manager.service.ReportService;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator for {@link ApiServer}. Each client sends one request, waits for the
+ * answer and sends the next. The mix is monthly reports, 30-day range reports and expense inserts.
+ * It prints throughput, latency percentiles per request kind and the count of each status code.
+ * <p>
+ * Without {@code --url} it seeds the in-memory H2 database and starts the server in-process on a
+ * free port. Run it with
+ * {@code java -cp target/benchmarks.jar com.finance_manager.benchmarks.ApiLoadGenerator [options]}:
+ * <pre>
+ *   --url URL            target server, e.g. http://localhost:8080 (default: in-process)
+ *   --rows N             expenses to seed for the in-process server (default 100000)
+ *   --db-concurrency N   database permits of the in-process server (default 8)
+ *   --clients N          concurrent clients (default 32)
+ *   --warmup S           seconds of warm-up, not measured (default 5)
+ *   --seconds S          measured seconds (default 20)
+ *   --writes P           percent of requests that insert an expense (default 10)
+ * </pre>
+ */
+public final class ApiLoadGenerator {
+    private static final String[] KINDS = {"monthly", "range", "insert"};
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final int writePercent;
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    private ApiLoadGenerator(HttpClient client, String baseUrl, int writePercent) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.writePercent = writePercent;
+        for (String kind : KINDS) {
+            latencies.put(kind, new LatencyHistogram());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        int clients = Integer.parseInt(options.getOrDefault("clients", "32"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "20"));
+        int writes = Integer.parseInt(options.getOrDefault("writes", "10"));
+
+        ApiServer server = null;
+        String url = options.get("url");
+        if (url == null) {
+            BenchmarkDatabase.seed(Integer.parseInt(options.getOrDefault("rows", "100000")));
+            IncomeService incomeService = new IncomeService();
+            ExpenseService expenseService = new ExpenseService();
+            server = new ApiServer(incomeService, expenseService, new ReportService(incomeService, expenseService),
+                    new LedgerService(), new InetSocketAddress("localhost", 0),
+                    Integer.parseInt(options.getOrDefault("db-concurrency", "8")));
+            server.start();
+            url = "http://localhost:" + server.getPort();
+            System.out.println("In-process server on " + url + " (" + (server.usesVirtualThreads() ? "virtual" : "platform") + " threads)");
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(pool)
+                .build();
+        ApiLoadGenerator generator = new ApiLoadGenerator(client, url, writes);
+        ExecutorService workers = Executors.newFixedThreadPool(clients);
+        List<Future<?>> loops = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            long seed = i;
+            loops.add(workers.submit(() -> generator.loop(new Random(seed))));
+        }
+
+        Thread.sleep(warmup * 1000L);
+        generator.recording = true;
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1000L);
+        generator.recording = false;
+        long elapsed = System.nanoTime() - start;
+        generator.running = false;
+        for (Future<?> loop : loops) {
+            loop.get();
+        }
+        workers.shutdown();
+        pool.shutdown();
+        if (server != null) {
+            server.close();
+        }
+        generator.report(clients, elapsed);
+        System.exit(0);
+    }
+
+    private Void loop(Random random) {
+        while (running) {
+            int pick = random.nextInt(100);
+            String kind;
+            HttpRequest request;
+            if (pick < writePercent) {
+                kind = "insert";
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/expenses"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                                "{\"amount\":\"%d.%02d\",\"category\":\"Load\",\"date\":\"%s\",\"description\":\"load test\"}",
+                                1 + random.nextInt(200), random.nextInt(100), randomDay(random))))
+                        .build();
+            } else if (pick < writePercent + (100 - writePercent) / 2) {
+                kind = "monthly";
+                LocalDate day = randomDay(random);
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/reports/monthly?year=" + day.getYear()
+                        + "&month=" + day.getMonthValue())).build();
+            } else {
+                kind = "range";
+                LocalDate from = randomDay(random);
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/reports/range?from=" + from + "&to=" + from.plusDays(29))).build();
+            }
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (Exception e) {
+                status = -1;
+            }
+            long nanos = System.nanoTime() - start;
+            if (recording) {
+                latencies.get(kind).record(nanos);
+                statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+            }
+        }
+        return null;
+    }
+
+    private void report(int clients, long elapsedNanos) {
+        long total = 0;
+        for (LatencyHistogram histogram : latencies.values()) {
+            total += histogram.count();
+        }
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%d clients, %.1f s: %d requests, %.0f req/s%n", clients, seconds, total, total / seconds);
+        System.out.printf("%-8s %10s %10s %10s %10s %10s %10s%n", "kind", "count", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (String kind : KINDS) {
+            LatencyHistogram h = latencies.get(kind);
+            System.out.printf("%-8s %10d %10.2f %10.2f %10.2f %10.2f %10.2f%n", kind, h.count(), h.mean() / 1e6,
+                    h.percentile(50) / 1e6, h.percentile(90) / 1e6, h.percentile(99) / 1e6, h.max() / 1e6);
+        }
+        statuses.forEach((status, count) -> System.out.println("status " + (status == -1 ? "error" : status) + ": " + count.sum()));
+    }
+
+    private static LocalDate randomDay(Random random) {
+        return BenchmarkDatabase.FIRST_DAY.plusDays(random.nextInt(BenchmarkDatabase.DAYS));
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
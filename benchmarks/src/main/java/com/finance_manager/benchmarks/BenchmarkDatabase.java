@@ -0,0 +1,122 @@
+package com.finance_manager.benchmarks;
+
+import com.finance_manager.dao.impl.LabelDictionary;
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.exceptions.InvalidAmountException;
+import com.finance_manager.model.Expense;
+import com.finance_manager.model.Income;
+import com.finance_manager.service.ExpenseService;
+import com.finance_manager.service.IncomeService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * In-process H2 database (MySQL mode) seeded with a deterministic data set, so benchmark runs
+ * are repeatable without a MySQL server.
+ * <p>
+ * Expenses are spread over {@link #DAYS} days ending {@link #LAST_DAY}; there is one income for
+ * every ten expenses. Rows are loaded through the services, so the monthly rollup is populated
+ * exactly as in production.
+ */
+public final class BenchmarkDatabase {
+    public static final String URL = "jdbc:h2:mem:finance_bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,MONTH,VALUE;DB_CLOSE_DELAY=-1";
+    public static final LocalDate LAST_DAY = LocalDate.of(2025, 12, 31);
+    public static final int DAYS = 5 * 365;
+    public static final LocalDate FIRST_DAY = LAST_DAY.minusDays(DAYS - 1);
+
+    private static final String[] CATEGORIES = {"Rent", "Food", "Transport", "Utilities", "Health", "Insurance",
+            "Shopping", "Travel", "Education", "Entertainment", "Gifts", "Other"};
+    private static final String[] SOURCES = {"Salary", "Freelance", "Interest", "Other"};
+    private static final int SEED_CHUNK = 5000;
+
+    private static int seededRows = -1;
+
+    static {
+        System.setProperty("FINANCE_DB_URL", URL);
+        System.setProperty("FINANCE_DB_USER", "sa");
+        System.setProperty("FINANCE_DB_PASSWORD", "sa");
+    }
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Creates the schema and loads {@code expenseRows} expenses (and a tenth as many incomes),
+     * unless the database already holds exactly that data set.
+     */
+    public static synchronized void seed(int expenseRows) throws SQLException, IOException, DatabaseOperationException, InvalidAmountException {
+        if (seededRows == expenseRows) {
+            return;
+        }
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "sa");
+             Statement st = conn.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+            for (String ddl : loadSchema().split(";")) {
+                if (!ddl.isBlank()) {
+                    st.execute(ddl);
+                }
+            }
+        }
+        LabelDictionary.expenseCategories().clear();
+        LabelDictionary.incomeSources().clear();
+
+        Random random = new Random(42);
+        IncomeService incomeService = new IncomeService();
+        ExpenseService expenseService = new ExpenseService();
+        List<Expense> expenses = new ArrayList<>(SEED_CHUNK);
+        for (int i = 0; i < expenseRows; i++) {
+            expenses.add(randomExpense(random));
+            if (expenses.size() == SEED_CHUNK) {
+                expenseService.addExpenses(expenses);
+                expenses = new ArrayList<>(SEED_CHUNK);
+            }
+        }
+        if (!expenses.isEmpty()) {
+            expenseService.addExpenses(expenses);
+        }
+        List<Income> incomes = new ArrayList<>();
+        for (int i = 0; i < expenseRows / 10; i++) {
+            incomes.add(new Income(50_000 + random.nextInt(500_000), SOURCES[random.nextInt(SOURCES.length)],
+                    "income " + i, randomDay(random)));
+        }
+        if (!incomes.isEmpty()) {
+            incomeService.addIncomes(incomes);
+        }
+        seededRows = expenseRows;
+    }
+
+    public static Expense randomExpense(Random random) {
+        return new Expense(100 + random.nextInt(50_000), CATEGORIES[random.nextInt(CATEGORIES.length)],
+                "expense " + random.nextInt(1000), randomDay(random));
+    }
+
+    private static LocalDate randomDay(Random random) {
+        return FIRST_DAY.plusDays(random.nextInt(DAYS));
+    }
+
+    private static String loadSchema() throws IOException {
+        try (InputStream in = BenchmarkDatabase.class.getResourceAsStream("/bench-schema.sql")) {
+            if (in == null) {
+                throw new IOException("bench-schema.sql not found on the classpath");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Stand-in for MySQL's {@code TO_DAYS}, registered as an H2 alias by the schema script.
+     */
+    public static long toDays(java.sql.Date date) {
+        return date.toLocalDate().toEpochDay() + 719528;
+    }
+}
@@ -0,0 +1,43 @@
+package com.finance_manager.benchmarks;
+
+import com.finance_manager.dao.DBConnection;
+import com.finance_manager.service.ExpenseService;
+import com.finance_manager.service.IncomeService;
+import com.finance_manager.service.LedgerService;
+import com.finance_manager.service.ReportService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Seeded database plus the service graph the application builds in {@code Main}.
+ * Override the volume with {@code -p rows=1000000}.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkState {
+    @Param({"100000"})
+    public int rows;
+
+    public IncomeService incomeService;
+    public ExpenseService expenseService;
+    public ReportService reportService;
+    public LedgerService ledgerService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkDatabase.seed(rows);
+        incomeService = new IncomeService();
+        expenseService = new ExpenseService();
+        reportService = new ReportService(incomeService, expenseService);
+        ledgerService = new LedgerService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        reportService.shutdown();
+        DBConnection.shutdown();
+    }
+}
@@ -0,0 +1,46 @@
+package com.finance_manager.benchmarks;
+
+import com.finance_manager.dao.impl.ExpenseDAO;
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.model.Expense;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DaoBenchmark {
+    private final ExpenseDAO expenseDAO = new ExpenseDAO();
+    private final Random random = new Random(7);
+
+    @Benchmark
+    public Expense insertExpense(BenchmarkState state) throws DatabaseOperationException {
+        Expense expense = BenchmarkDatabase.randomExpense(random);
+        expenseDAO.insertExpense(expense);
+        return expense;
+    }
+
+    @Benchmark
+    public List<Expense> fetchByDateRangeMonth(BenchmarkState state) throws DatabaseOperationException {
+        return expenseDAO.fetchByDateRange(BenchmarkDatabase.LAST_DAY.withDayOfMonth(1), BenchmarkDatabase.LAST_DAY);
+    }
+
+    @Benchmark
+    public List<Expense> fetchByDateRangeYear(BenchmarkState state) throws DatabaseOperationException {
+        return expenseDAO.fetchByDateRange(BenchmarkDatabase.LAST_DAY.withDayOfYear(1), BenchmarkDatabase.LAST_DAY);
+    }
+}
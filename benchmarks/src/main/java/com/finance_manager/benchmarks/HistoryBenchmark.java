@@ -0,0 +1,62 @@
+package com.finance_manager.benchmarks;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.model.Expense;
+import com.finance_manager.model.Income;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detailed history for one year: the original build-and-sort done in {@code Main} against the
+ * streamed, merged ledger that replaced it. Neither prints; rows go to a Blackhole.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryBenchmark {
+    private static final LocalDate FROM = BenchmarkDatabase.LAST_DAY.withDayOfYear(1);
+    private static final LocalDate TO = BenchmarkDatabase.LAST_DAY;
+
+    private record Movement(int id, LocalDate date, String type, String description, long change) {}
+
+    @Benchmark
+    public long buildAndSortHistory(BenchmarkState state, Blackhole blackhole) throws DatabaseOperationException {
+        List<Income> incomes = state.incomeService.getIncomeByDateRange(FROM, TO);
+        List<Expense> expenses = state.expenseService.getExpenseByDateRange(FROM, TO);
+
+        List<Movement> movements = new ArrayList<>();
+        for (Income i : incomes) {
+            movements.add(new Movement(i.getId(), i.getDate(), "INCOME", i.getSource() + " - " + i.getDescription(), i.getAmountCents()));
+        }
+        for (Expense e : expenses) {
+            movements.add(new Movement(e.getId(), e.getDate(), "EXPENSE", e.getCategory() + " - " + e.getDescription(), -e.getAmountCents()));
+        }
+        movements.sort(Comparator.comparing(Movement::date));
+
+        long balance = 0;
+        for (Movement m : movements) {
+            balance += m.change();
+            blackhole.consume(m);
+        }
+        return balance;
+    }
+
+    @Benchmark
+    public long streamedHistory(BenchmarkState state, Blackhole blackhole) throws DatabaseOperationException {
+        return state.ledgerService.streamHistory(FROM, TO, (entry, balance) -> blackhole.consume(entry));
+    }
+}
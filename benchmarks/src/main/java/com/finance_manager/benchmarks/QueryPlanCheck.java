@@ -0,0 +1,94 @@
+package com.finance_manager.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Checks that the date range queries of the income and expense DAOs are planned on the date
+ * indexes, by running {@code EXPLAIN} on the seeded H2 database and looking for the index name
+ * in the plan. Exits with status 1 if any plan does not use its index, so a dropped index or a
+ * query rewritten into a full scan fails the benchmarks module's {@code mvn verify}.
+ * <p>
+ * The statements are the DAOs' date range SQL, plus the per-label lookup of
+ * {@code sql/explain_checks.sql}, which is the same check by hand against MySQL. Keep them in
+ * step when a DAO query changes.
+ */
+public final class QueryPlanCheck {
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 2, 1);
+
+    private QueryPlanCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkDatabase.seed(args.length > 0 ? Integer.parseInt(args[0]) : 20_000);
+        List<String> failures = new ArrayList<>();
+        int checks = 0;
+        try (Connection conn = DriverManager.getConnection(BenchmarkDatabase.URL, "sa", "sa")) {
+            for (Check check : checks()) {
+                checks++;
+                String plan = explain(conn, check);
+                if (!plan.toLowerCase(Locale.ROOT).contains(check.index())) {
+                    failures.add(check.sql() + "\n  expected " + check.index() + ", plan: " + plan.replaceAll("\\s+", " "));
+                }
+            }
+        }
+        for (String failure : failures) {
+            System.out.println("FAIL " + failure);
+        }
+        System.out.println((checks - failures.size()) + " of " + checks + " query plans use their index");
+        if (!failures.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    private static List<Check> checks() {
+        List<Check> checks = new ArrayList<>();
+        addChecks(checks, "expense", "category_id");
+        addChecks(checks, "income", "source_id");
+        return checks;
+    }
+
+    private static void addChecks(List<Check> checks, String table, String label) {
+        String columns = "id, amount_cents, " + label + ", description, date";
+        String dateIndex = "idx_" + table + "_date";
+        checks.add(new Check("SELECT " + columns + " FROM " + table + " WHERE date >= ? AND date < ?", dateIndex, FROM, TO));
+        checks.add(new Check("SELECT " + columns + " FROM " + table + " WHERE date BETWEEN ? AND ?", dateIndex, FROM, TO));
+        checks.add(new Check("SELECT " + columns + " FROM " + table
+                + " WHERE date BETWEEN ? AND ? AND (date > ? OR (date = ? AND id > ?)) ORDER BY date, id LIMIT ?",
+                dateIndex, FROM, TO, FROM, FROM, 0, 25));
+        checks.add(new Check("SELECT " + columns + " FROM " + table + " WHERE date BETWEEN ? AND ? ORDER BY date, id", dateIndex, FROM, TO));
+        checks.add(new Check("SELECT COALESCE(SUM(amount_cents), 0) FROM " + table + " WHERE date >= ? AND date < ?", dateIndex, FROM, TO));
+        checks.add(new Check("SELECT COALESCE(SUM(amount_cents), 0) FROM " + table + " WHERE date BETWEEN ? AND ?", dateIndex, FROM, TO));
+        checks.add(new Check("SELECT " + label + ", SUM(amount_cents) AS total FROM " + table
+                + " WHERE date BETWEEN ? AND ? GROUP BY " + label + " ORDER BY total DESC", dateIndex, FROM, TO));
+        checks.add(new Check("SELECT id, TO_DAYS(date) - 719528, amount_cents, " + label + " FROM " + table
+                + " WHERE date BETWEEN ? AND ?", dateIndex, FROM, TO));
+        checks.add(new Check("SELECT id, amount_cents FROM " + table + " WHERE " + label + " = ? AND date >= ? AND date < ?",
+                "idx_" + table + "_" + (table.equals("expense") ? "category" : "source") + "_date", 1, FROM, TO));
+    }
+
+    private static String explain(Connection conn, Check check) throws Exception {
+        try (PreparedStatement ps = conn.prepareStatement("EXPLAIN " + check.sql())) {
+            for (int i = 0; i < check.params().length; i++) {
+                ps.setObject(i + 1, check.params()[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+                return plan.toString();
+            }
+        }
+    }
+
+    private record Check(String sql, String index, Object... params) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.finance_manager.benchmarks;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.model.MonthlyReport;
+import com.finance_manager.model.TrendPeriod;
+import com.finance_manager.model.TrendReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code Uncached} variants clear the report cache first so every call reaches the database.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportBenchmark {
+    private static final LocalDate YEAR_START = BenchmarkDatabase.LAST_DAY.withDayOfYear(1);
+
+    @Benchmark
+    public MonthlyReport monthlyReportCached(BenchmarkState state) throws DatabaseOperationException {
+        return state.reportService.generateMonthlyReport(2025, 6);
+    }
+
+    @Benchmark
+    public MonthlyReport monthlyReportUncached(BenchmarkState state) throws DatabaseOperationException {
+        state.reportService.clearCache();
+        return state.reportService.generateMonthlyReport(2025, 6);
+    }
+
+    @Benchmark
+    public MonthlyReport customDateReportCached(BenchmarkState state) throws DatabaseOperationException {
+        return state.reportService.generateCustomDateReport(YEAR_START, BenchmarkDatabase.LAST_DAY);
+    }
+
+    @Benchmark
+    public MonthlyReport customDateReportUncached(BenchmarkState state) throws DatabaseOperationException {
+        state.reportService.clearCache();
+        return state.reportService.generateCustomDateReport(YEAR_START, BenchmarkDatabase.LAST_DAY);
+    }
+
+    @Benchmark
+    public TrendReport monthlyTrendFiveYears(BenchmarkState state) throws DatabaseOperationException {
+        return state.reportService.generateTrend(YearMonth.from(BenchmarkDatabase.FIRST_DAY),
+                YearMonth.from(BenchmarkDatabase.LAST_DAY), TrendPeriod.MONTH);
+    }
+}
@@ -0,0 +1,43 @@
+-- H2 (MODE=MySQL) version of sql/schema.sql used by the benchmarks.
+CREATE TABLE income_source (
+  id INT PRIMARY KEY AUTO_INCREMENT,
+  name VARCHAR(50) NOT NULL UNIQUE
+);
+
+CREATE TABLE expense_category (
+  id INT PRIMARY KEY AUTO_INCREMENT,
+  name VARCHAR(50) NOT NULL UNIQUE
+);
+
+CREATE TABLE income (
+  id INT PRIMARY KEY AUTO_INCREMENT,
+  amount_cents BIGINT NOT NULL,
+  source_id INT REFERENCES income_source (id),
+  description VARCHAR(100),
+  date DATE NOT NULL
+);
+CREATE INDEX idx_income_date ON income (date);
+CREATE INDEX idx_income_source_date ON income (source_id, date);
+
+CREATE TABLE expense (
+  id INT PRIMARY KEY AUTO_INCREMENT,
+  amount_cents BIGINT NOT NULL,
+  category_id INT REFERENCES expense_category (id),
+  description VARCHAR(100),
+  date DATE NOT NULL
+);
+CREATE INDEX idx_expense_date ON expense (date);
+CREATE INDEX idx_expense_category_date ON expense (category_id, date);
+
+CREATE TABLE monthly_summary (
+  year SMALLINT NOT NULL,
+  month TINYINT NOT NULL,
+  kind ENUM('INCOME', 'EXPENSE') NOT NULL,
+  label VARCHAR(50) NOT NULL,
+  total_cents BIGINT NOT NULL DEFAULT 0,
+  tx_count INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (year, month, kind, label)
+);
+
+-- MySQL's TO_DAYS, which H2 lacks.
+CREATE ALIAS TO_DAYS FOR "com.finance_manager.benchmarks.BenchmarkDatabase.toDays";
@@ -0,0 +1,20 @@
+-- Plan checks for the hot DAO queries. Run against a populated finance_db:
+--   mysql finance_db < sql/explain_checks.sql
+-- Every row must report type=range (or ref) with one of the idx_* keys; type=ALL means a
+-- full table scan has crept back in. The same queries are checked automatically against H2 by
+-- benchmarks/.../QueryPlanCheck during `mvn verify` in benchmarks/.
+USE finance_db;
+
+-- fetchByMonth / fetchByDateRange
+EXPLAIN SELECT id, amount_cents, category_id, description, date FROM expense WHERE date >= '2026-01-01' AND date < '2026-02-01';
+EXPLAIN SELECT id, amount_cents, source_id, description, date FROM income WHERE date >= '2026-01-01' AND date < '2026-02-01';
+EXPLAIN SELECT id, amount_cents, category_id, description, date FROM expense WHERE date BETWEEN '2025-01-01' AND '2025-12-31';
+EXPLAIN SELECT id, amount_cents, source_id, description, date FROM income WHERE date BETWEEN '2025-01-01' AND '2025-12-31';
+
+-- per-label lookups
+EXPLAIN SELECT id, amount_cents FROM expense WHERE category_id = 1 AND date >= '2026-01-01' AND date < '2026-02-01';
+EXPLAIN SELECT id, amount_cents FROM income WHERE source_id = 1 AND date >= '2026-01-01' AND date < '2026-02-01';
+
+-- fetchPage (keyset): must be a range scan on idx_*_date with no filesort, whatever the cursor
+EXPLAIN SELECT id, amount_cents, category_id, description, date FROM expense WHERE date BETWEEN '2020-01-01' AND '2025-12-31' AND (date > '2024-06-01' OR (date = '2024-06-01' AND id > 123456)) ORDER BY date, id LIMIT 25;
+EXPLAIN SELECT id, amount_cents, source_id, description, date FROM income WHERE date BETWEEN '2020-01-01' AND '2025-12-31' AND (date > '2024-06-01' OR (date = '2024-06-01' AND id > 123456)) ORDER BY date, id LIMIT 25;
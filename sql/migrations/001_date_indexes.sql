@@ -0,0 +1,10 @@
+-- Adds the date indexes to databases created before they were part of schema.sql.
+USE finance_db;
+
+ALTER TABLE income
+  ADD INDEX idx_income_date (date),
+  ADD INDEX idx_income_source_date (source, date);
+
+ALTER TABLE expense
+  ADD INDEX idx_expense_date (date),
+  ADD INDEX idx_expense_category_date (category, date);
@@ -0,0 +1,21 @@
+-- Creates the monthly_summary rollup and fills it from the existing rows.
+USE finance_db;
+
+CREATE TABLE IF NOT EXISTS monthly_summary (
+  year SMALLINT NOT NULL,
+  month TINYINT NOT NULL,
+  kind ENUM('INCOME', 'EXPENSE') NOT NULL,
+  label VARCHAR(50) NOT NULL,
+  total DOUBLE NOT NULL DEFAULT 0,
+  tx_count INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (year, month, kind, label)
+);
+
+DELETE FROM monthly_summary;
+
+INSERT INTO monthly_summary (year, month, kind, label, total, tx_count)
+SELECT YEAR(date), MONTH(date), 'INCOME', COALESCE(source, 'Unspecified') AS label, SUM(amount), COUNT(*)
+FROM income GROUP BY YEAR(date), MONTH(date), label
+UNION ALL
+SELECT YEAR(date), MONTH(date), 'EXPENSE', COALESCE(category, 'Uncategorized') AS label, SUM(amount), COUNT(*)
+FROM expense GROUP BY YEAR(date), MONTH(date), label;
@@ -0,0 +1,29 @@
+-- Moves amounts from DOUBLE to exact BIGINT cents.
+USE finance_db;
+
+ALTER TABLE income ADD COLUMN amount_cents BIGINT NULL AFTER amount;
+UPDATE income SET amount_cents = ROUND(amount * 100);
+ALTER TABLE income MODIFY amount_cents BIGINT NOT NULL, DROP COLUMN amount;
+
+ALTER TABLE expense ADD COLUMN amount_cents BIGINT NULL AFTER amount;
+UPDATE expense SET amount_cents = ROUND(amount * 100);
+ALTER TABLE expense MODIFY amount_cents BIGINT NOT NULL, DROP COLUMN amount;
+
+-- The rollup is derived data: recreate it in cents from the converted rows.
+DROP TABLE IF EXISTS monthly_summary;
+CREATE TABLE monthly_summary (
+  year SMALLINT NOT NULL,
+  month TINYINT NOT NULL,
+  kind ENUM('INCOME', 'EXPENSE') NOT NULL,
+  label VARCHAR(50) NOT NULL,
+  total_cents BIGINT NOT NULL DEFAULT 0,
+  tx_count INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (year, month, kind, label)
+);
+
+INSERT INTO monthly_summary (year, month, kind, label, total_cents, tx_count)
+SELECT YEAR(date), MONTH(date), 'INCOME', COALESCE(source, 'Unspecified') AS label, SUM(amount_cents), COUNT(*)
+FROM income GROUP BY YEAR(date), MONTH(date), label
+UNION ALL
+SELECT YEAR(date), MONTH(date), 'EXPENSE', COALESCE(category, 'Uncategorized') AS label, SUM(amount_cents), COUNT(*)
+FROM expense GROUP BY YEAR(date), MONTH(date), label;
@@ -0,0 +1,35 @@
+-- Replaces the free-text source/category columns with ids into small lookup tables.
+USE finance_db;
+
+CREATE TABLE income_source (
+  id INT PRIMARY KEY AUTO_INCREMENT,
+  name VARCHAR(50) NOT NULL,
+  UNIQUE KEY uk_income_source_name (name)
+);
+
+CREATE TABLE expense_category (
+  id INT PRIMARY KEY AUTO_INCREMENT,
+  name VARCHAR(50) NOT NULL,
+  UNIQUE KEY uk_expense_category_name (name)
+);
+
+INSERT INTO income_source (name) SELECT DISTINCT source FROM income WHERE source IS NOT NULL;
+INSERT INTO expense_category (name) SELECT DISTINCT category FROM expense WHERE category IS NOT NULL;
+
+ALTER TABLE income ADD COLUMN source_id INT NULL AFTER source;
+UPDATE income i JOIN income_source s ON s.name = i.source SET i.source_id = s.id;
+ALTER TABLE income
+  DROP INDEX idx_income_source_date,
+  DROP COLUMN source,
+  ADD INDEX idx_income_source_date (source_id, date),
+  ADD CONSTRAINT fk_income_source FOREIGN KEY (source_id) REFERENCES income_source (id);
+
+ALTER TABLE expense ADD COLUMN category_id INT NULL AFTER category;
+UPDATE expense e JOIN expense_category c ON c.name = e.category SET e.category_id = c.id;
+ALTER TABLE expense
+  DROP INDEX idx_expense_category_date,
+  DROP COLUMN category,
+  ADD INDEX idx_expense_category_date (category_id, date),
+  ADD CONSTRAINT fk_expense_category FOREIGN KEY (category_id) REFERENCES expense_category (id);
+
+-- monthly_summary keeps the names as labels and needs no change.
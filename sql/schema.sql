@@ -2,19 +2,54 @@
 CREATE DATABASE IF NOT EXISTS finance_db;
 USE finance_db;
 
+-- Income sources and expense categories are dictionary-encoded: each distinct name is stored
+-- once here and rows refer to it by a small integer id. The application caches both tables.
+CREATE TABLE IF NOT EXISTS income_source (
+  id INT PRIMARY KEY AUTO_INCREMENT,
+  name VARCHAR(50) NOT NULL,
+  UNIQUE KEY uk_income_source_name (name)
+);
+
+CREATE TABLE IF NOT EXISTS expense_category (
+  id INT PRIMARY KEY AUTO_INCREMENT,
+  name VARCHAR(50) NOT NULL,
+  UNIQUE KEY uk_expense_category_name (name)
+);
+
+-- Amounts are whole cents (BIGINT) so sums are exact.
+-- Month and range lookups filter on a half-open date range (date >= ? AND date < ?),
+-- so every table keeps a date index plus a (label id, date) index for per-label queries.
 CREATE TABLE IF NOT EXISTS income (
   id INT PRIMARY KEY AUTO_INCREMENT,
-  amount DOUBLE NOT NULL,
-  source VARCHAR(50),
+  amount_cents BIGINT NOT NULL,
+  source_id INT,
   description VARCHAR(100),
-  date DATE NOT NULL
+  date DATE NOT NULL,
+  INDEX idx_income_date (date),
+  INDEX idx_income_source_date (source_id, date),
+  CONSTRAINT fk_income_source FOREIGN KEY (source_id) REFERENCES income_source (id)
 );
 
 CREATE TABLE IF NOT EXISTS expense (
   id INT PRIMARY KEY AUTO_INCREMENT,
-  amount DOUBLE NOT NULL,
-  category VARCHAR(50),
+  amount_cents BIGINT NOT NULL,
+  category_id INT,
   description VARCHAR(100),
-  date DATE NOT NULL
+  date DATE NOT NULL,
+  INDEX idx_expense_date (date),
+  INDEX idx_expense_category_date (category_id, date),
+  CONSTRAINT fk_expense_category FOREIGN KEY (category_id) REFERENCES expense_category (id)
 );
 
+-- Per-month rollup kept in step by IncomeService/ExpenseService in the same transaction as
+-- each write. label is the income source or expense category. Rebuild from the base tables
+-- with menu option 12 (or sql/migrations/002_monthly_summary.sql).
+CREATE TABLE IF NOT EXISTS monthly_summary (
+  year SMALLINT NOT NULL,
+  month TINYINT NOT NULL,
+  kind ENUM('INCOME', 'EXPENSE') NOT NULL,
+  label VARCHAR(50) NOT NULL,
+  total_cents BIGINT NOT NULL DEFAULT 0,
+  tx_count INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (year, month, kind, label)
+);
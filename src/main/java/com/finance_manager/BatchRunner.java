@@ -0,0 +1,433 @@
+package com.finance_manager;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.exceptions.InvalidAmountException;
+import com.finance_manager.metrics.MetricsRegistry;
+import com.finance_manager.metrics.OperationSnapshot;
+import com.finance_manager.model.Expense;
+import com.finance_manager.model.ImportResult;
+import com.finance_manager.model.Income;
+import com.finance_manager.model.Money;
+import com.finance_manager.model.MonthlyReport;
+import com.finance_manager.model.SummaryDrift;
+import com.finance_manager.model.TrendPeriod;
+import com.finance_manager.model.TrendPoint;
+import com.finance_manager.service.CsvImportService;
+import com.finance_manager.service.ExpenseService;
+import com.finance_manager.service.IncomeService;
+import com.finance_manager.service.LedgerService;
+import com.finance_manager.service.ReportService;
+import com.finance_manager.service.SnapshotService;
+import com.finance_manager.utils.ReportWriter;
+import com.finance_manager.utils.generateBills;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Headless front end: runs one command given on the command line, or with {@code script FILE}
+ * (or {@code script -} for stdin) every command in a script, all in one JVM sharing the
+ * connection pool and report caches.
+ * <p>
+ * Output is tab-separated, one record per line. A command prints any number of
+ * {@code row<TAB>n<TAB>...} lines followed by exactly one {@code ok<TAB>n<TAB>...} or
+ * {@code error<TAB>n<TAB>message} line, where {@code n} is the script line number (1 for a single
+ * command). Amounts are decimals with two fraction digits; tabs and line breaks inside text are
+ * replaced by spaces. Script lines are split on whitespace, double quotes group words, and
+ * blank lines and lines starting with {@code #} are skipped. The exit status is 0 if every
+ * command succeeded and 1 otherwise.
+ */
+public class BatchRunner {
+    private static final String USAGE = String.join("\n",
+            "Commands:",
+            "  add-income AMOUNT SOURCE [DATE|-] [DESCRIPTION]",
+            "  add-expense AMOUNT CATEGORY [DATE|-] [DESCRIPTION]",
+            "  update-income ID AMOUNT SOURCE DATE [DESCRIPTION]",
+            "  update-expense ID AMOUNT CATEGORY DATE [DESCRIPTION]",
+            "  delete-income ID",
+            "  delete-expense ID",
+            "  monthly YEAR MONTH",
+            "  range FROM TO",
+            "  breakdown FROM TO",
+            "  history FROM TO",
+            "  trend FROM_MONTH TO_MONTH [month|quarter|year]",
+            "  import-incomes CSV_FILE",
+            "  import-expenses CSV_FILE",
+            "  export-snapshot FILE",
+            "  restore-snapshot FILE",
+            "  export-history FROM TO FILE [csv|json]",
+            "  statements FROM_MONTH TO_MONTH DIRECTORY [text|csv]",
+            "  verify-summary",
+            "  rebuild-summary",
+            "  metrics",
+            "  flush",
+            "  script FILE|-");
+
+    private final IncomeService incomeService;
+    private final ExpenseService expenseService;
+    private final ReportService reportService;
+    private final LedgerService ledgerService;
+    private final CsvImportService importService;
+    private final SnapshotService snapshotService;
+    private final Writer out;
+    private int failures;
+
+    public BatchRunner(IncomeService incomeService, ExpenseService expenseService, ReportService reportService,
+                       LedgerService ledgerService, Writer out) {
+        this.incomeService = incomeService;
+        this.expenseService = expenseService;
+        this.reportService = reportService;
+        this.ledgerService = ledgerService;
+        this.importService = new CsvImportService(incomeService, expenseService);
+        this.snapshotService = new SnapshotService(incomeService, expenseService);
+        this.out = out;
+    }
+
+    /**
+     * Runs the command in {@code args} and returns the process exit status.
+     */
+    public int run(String[] args) throws IOException {
+        if (args[0].equals("help") || args[0].equals("--help")) {
+            out.write(USAGE);
+            out.write('\n');
+            out.flush();
+            return 0;
+        }
+        if (args[0].equals("script")) {
+            if (args.length != 2) {
+                error(1, "usage: script FILE|-");
+            } else if (args[1].equals("-")) {
+                runScript(new InputStreamReader(System.in, StandardCharsets.UTF_8), true);
+            } else {
+                try (Reader script = Files.newBufferedReader(Path.of(args[1]))) {
+                    runScript(script, false);
+                }
+            }
+        } else {
+            execute(1, Arrays.asList(args));
+        }
+        // Queued write-behind adds must be committed before the exit status is known.
+        try {
+            incomeService.flush();
+            expenseService.flush();
+        } catch (DatabaseOperationException e) {
+            error(0, "flush: " + e.getMessage());
+        }
+        out.flush();
+        return failures == 0 ? 0 : 1;
+    }
+
+    /**
+     * With {@code flushEachCommand} each result is written out as soon as it is ready, for a
+     * caller that feeds commands through a pipe and waits for the answers.
+     */
+    private void runScript(Reader script, boolean flushEachCommand) throws IOException {
+        BufferedReader reader = new BufferedReader(script);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            List<String> words;
+            try {
+                words = split(trimmed);
+            } catch (IllegalArgumentException e) {
+                error(lineNumber, e.getMessage());
+                continue;
+            }
+            if (words.get(0).equals("script")) {
+                error(lineNumber, "scripts cannot be nested");
+                continue;
+            }
+            execute(lineNumber, words);
+            if (flushEachCommand) {
+                out.flush();
+            }
+        }
+    }
+
+    private void execute(int seq, List<String> words) throws IOException {
+        String command = words.get(0);
+        List<String> args = words.subList(1, words.size());
+        try {
+            switch (command) {
+                case "add-income" -> {
+                    arity(args, 2, 4, "add-income AMOUNT SOURCE [DATE|-] [DESCRIPTION]");
+                    Income income = new Income(Money.parse(args.get(0)), args.get(1), optional(args, 3), optionalDate(args, 2));
+                    incomeService.addIncome(income);
+                    ok(seq, income.getId());
+                }
+                case "add-expense" -> {
+                    arity(args, 2, 4, "add-expense AMOUNT CATEGORY [DATE|-] [DESCRIPTION]");
+                    Expense expense = new Expense(Money.parse(args.get(0)), args.get(1), optional(args, 3), optionalDate(args, 2));
+                    expenseService.addExpense(expense);
+                    ok(seq, expense.getId());
+                }
+                case "update-income" -> {
+                    arity(args, 4, 5, "update-income ID AMOUNT SOURCE DATE [DESCRIPTION]");
+                    incomeService.updateIncome(new Income(Integer.parseInt(args.get(0)), Money.parse(args.get(1)), args.get(2),
+                            optional(args, 4), LocalDate.parse(args.get(3))));
+                    ok(seq, args.get(0));
+                }
+                case "update-expense" -> {
+                    arity(args, 4, 5, "update-expense ID AMOUNT CATEGORY DATE [DESCRIPTION]");
+                    expenseService.updateExpense(new Expense(Integer.parseInt(args.get(0)), Money.parse(args.get(1)), args.get(2),
+                            optional(args, 4), LocalDate.parse(args.get(3))));
+                    ok(seq, args.get(0));
+                }
+                case "delete-income" -> {
+                    arity(args, 1, 1, "delete-income ID");
+                    incomeService.deleteIncome(Integer.parseInt(args.get(0)));
+                    ok(seq, args.get(0));
+                }
+                case "delete-expense" -> {
+                    arity(args, 1, 1, "delete-expense ID");
+                    expenseService.deleteExpense(Integer.parseInt(args.get(0)));
+                    ok(seq, args.get(0));
+                }
+                case "monthly" -> {
+                    arity(args, 2, 2, "monthly YEAR MONTH");
+                    totals(seq, reportService.generateMonthlyReport(Integer.parseInt(args.get(0)), Integer.parseInt(args.get(1))));
+                }
+                case "range" -> {
+                    arity(args, 2, 2, "range FROM TO");
+                    totals(seq, reportService.generateCustomDateReport(LocalDate.parse(args.get(0)), LocalDate.parse(args.get(1))));
+                }
+                case "breakdown" -> {
+                    arity(args, 2, 2, "breakdown FROM TO");
+                    MonthlyReport report = reportService.generateCustomDateBreakdown(LocalDate.parse(args.get(0)), LocalDate.parse(args.get(1)));
+                    for (Map.Entry<String, Long> source : report.getIncomeBySource().entrySet()) {
+                        row(seq, "INCOME", source.getKey(), Money.format(source.getValue()));
+                    }
+                    for (Map.Entry<String, Long> category : report.getExpenseByCategory().entrySet()) {
+                        row(seq, "EXPENSE", category.getKey(), Money.format(category.getValue()));
+                    }
+                    totals(seq, report);
+                }
+                case "history" -> {
+                    arity(args, 2, 2, "history FROM TO");
+                    long[] count = {0};
+                    long balance = ledgerService.streamHistory(LocalDate.parse(args.get(0)), LocalDate.parse(args.get(1)), (entry, running) -> {
+                        count[0]++;
+                        try {
+                            row(seq, entry.id(), entry.date(), entry.type(), entry.label(), Money.format(entry.change()),
+                                    Money.format(running), entry.description());
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    ok(seq, count[0], Money.format(balance));
+                }
+                case "trend" -> {
+                    arity(args, 2, 3, "trend FROM_MONTH TO_MONTH [month|quarter|year]");
+                    TrendPeriod granularity = args.size() > 2 ? TrendPeriod.valueOf(args.get(2).toUpperCase(Locale.ROOT)) : TrendPeriod.MONTH;
+                    for (TrendPoint p : reportService.generateTrend(YearMonth.parse(args.get(0)), YearMonth.parse(args.get(1)), granularity).points()) {
+                        row(seq, p.period(), Money.format(p.income()), Money.format(p.expense()), Money.format(p.savings()),
+                                Money.format(p.cumulativeSavings()));
+                    }
+                    ok(seq);
+                }
+                case "import-incomes", "import-expenses" -> {
+                    arity(args, 1, 1, command + " CSV_FILE");
+                    ImportResult result;
+                    try (Reader csv = Files.newBufferedReader(Path.of(args.get(0)))) {
+                        result = command.equals("import-expenses") ? importService.importExpenses(csv) : importService.importIncomes(csv);
+                    }
+                    for (ImportResult.RowError rowError : result.getRowErrors()) {
+                        row(seq, rowError.lineNumber(), rowError.message());
+                    }
+                    ok(seq, result.getImportedCount(), result.getRowErrors().size());
+                }
+                case "export-snapshot" -> {
+                    arity(args, 1, 1, "export-snapshot FILE");
+                    ok(seq, snapshotService.export(Path.of(args.get(0))));
+                }
+                case "restore-snapshot" -> {
+                    arity(args, 1, 1, "restore-snapshot FILE");
+                    ok(seq, snapshotService.restore(Path.of(args.get(0))));
+                }
+                case "export-history" -> {
+                    arity(args, 3, 4, "export-history FROM TO FILE [csv|json]");
+                    if (args.get(2).equals("-")) {
+                        // CSV or JSON on stdout would be mixed into the tab-separated records.
+                        throw new IllegalArgumentException("export-history needs a FILE in batch mode; use menu option 19 for the console");
+                    }
+                    LocalDate from = LocalDate.parse(args.get(0));
+                    LocalDate to = LocalDate.parse(args.get(1));
+                    ReportWriter.Format format = args.size() > 3
+                            ? ReportWriter.Format.valueOf(args.get(3).toUpperCase(Locale.ROOT)) : ReportWriter.Format.CSV;
+                    int rows;
+                    try (ReportWriter writer = ReportWriter.toFile(Path.of(args.get(2)), format)) {
+                        rows = writer.history(ledgerService, from, to);
+                        writer.summary("Summary " + from + " to " + to, reportService.generateCustomDateBreakdown(from, to));
+                    }
+                    ok(seq, rows);
+                }
+                case "statements" -> {
+                    arity(args, 3, 4, "statements FROM_MONTH TO_MONTH DIRECTORY [text|csv]");
+                    generateBills.Format format = args.size() > 3
+                            ? generateBills.Format.valueOf(args.get(3).toUpperCase(Locale.ROOT)) : generateBills.Format.TEXT;
+                    List<Path> files = new generateBills(ledgerService, reportService)
+                            .generate(YearMonth.parse(args.get(0)), YearMonth.parse(args.get(1)), Path.of(args.get(2)), format);
+                    for (Path file : files) {
+                        row(seq, file);
+                    }
+                    ok(seq, files.size());
+                }
+                case "verify-summary" -> {
+                    arity(args, 0, 0, "verify-summary");
+                    List<SummaryDrift> drift = reportService.getSummaryService().verify();
+                    for (SummaryDrift d : drift) {
+                        row(seq, d);
+                    }
+                    ok(seq, drift.size());
+                }
+                case "rebuild-summary" -> {
+                    arity(args, 0, 0, "rebuild-summary");
+                    reportService.getSummaryService().rebuild();
+                    reportService.clearCache();
+                    ok(seq);
+                }
+                case "metrics" -> {
+                    arity(args, 0, 0, "metrics");
+                    for (OperationSnapshot op : MetricsRegistry.getInstance().snapshot()) {
+                        row(seq, op.name(), op.calls(), op.errors(), op.rows(), op.total().mean(), op.total().p50(),
+                                op.total().p90(), op.total().p99(), op.total().max());
+                    }
+                    ok(seq);
+                }
+                case "flush" -> {
+                    arity(args, 0, 0, "flush");
+                    incomeService.flush();
+                    expenseService.flush();
+                    ok(seq);
+                }
+                default -> error(seq, "unknown command '" + command + "' (try help)");
+            }
+        } catch (DatabaseOperationException | InvalidAmountException e) {
+            error(seq, e.getMessage());
+        } catch (IllegalArgumentException | DateTimeException | ArithmeticException e) {
+            error(seq, "invalid argument: " + e.getMessage());
+        } catch (UncheckedIOException e) {
+            error(seq, e.getCause().getMessage());
+        } catch (IOException e) {
+            error(seq, "I/O error: " + e.getMessage());
+        }
+    }
+
+    private void totals(int seq, MonthlyReport report) throws IOException {
+        ok(seq, Money.format(report.getTotalIncomeCents()), Money.format(report.getTotalExpenseCents()),
+                Money.format(report.getSavingsCents()));
+    }
+
+    private void ok(int seq, Object... fields) throws IOException {
+        record("ok", seq, fields);
+    }
+
+    private void row(int seq, Object... fields) throws IOException {
+        record("row", seq, fields);
+    }
+
+    private void error(int seq, String message) throws IOException {
+        failures++;
+        record("error", seq, message);
+    }
+
+    private void record(String status, int seq, Object... fields) throws IOException {
+        out.write(status);
+        out.write('\t');
+        out.write(Integer.toString(seq));
+        for (Object field : fields) {
+            out.write('\t');
+            if (field != null) {
+                out.write(clean(field.toString()));
+            }
+        }
+        out.write('\n');
+    }
+
+    private static String clean(String text) {
+        return text.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private static void arity(List<String> args, int min, int max, String usage) {
+        if (args.size() < min || args.size() > max) {
+            throw new IllegalArgumentException("usage: " + usage);
+        }
+    }
+
+    private static String optional(List<String> args, int index) {
+        return args.size() > index ? args.get(index) : null;
+    }
+
+    private static LocalDate optionalDate(List<String> args, int index) {
+        String value = optional(args, index);
+        return value == null || value.equals("-") ? LocalDate.now() : LocalDate.parse(value);
+    }
+
+    /**
+     * Splits a script line on whitespace; double quotes group words and {@code \"} or {@code \\}
+     * inside quotes stand for a literal quote or backslash.
+     */
+    static List<String> split(String line) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        boolean inWord = false;
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '\\' && i + 1 < line.length() && (line.charAt(i + 1) == '"' || line.charAt(i + 1) == '\\')) {
+                    word.append(line.charAt(++i));
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    word.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                inWord = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inWord) {
+                    words.add(word.toString());
+                    word.setLength(0);
+                    inWord = false;
+                }
+            } else {
+                word.append(c);
+                inWord = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quote");
+        }
+        if (inWord) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    static Writer standardOutput() {
+        return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+    }
+}
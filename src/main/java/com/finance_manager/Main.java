@@ -1,27 +1,90 @@
 package com.finance_manager;
 
+import com.finance_manager.api.ApiServer;
+import com.finance_manager.dao.DBConnection;
+import com.finance_manager.dao.DaoFactory;
 import com.finance_manager.exceptions.DatabaseOperationException;
 import com.finance_manager.exceptions.InvalidAmountException;
+import com.finance_manager.metrics.FinanceMetrics;
+import com.finance_manager.metrics.MetricsRegistry;
 import com.finance_manager.model.Expense;
+import com.finance_manager.model.ColumnarLedger;
+import com.finance_manager.model.ImportResult;
 import com.finance_manager.model.Income;
+import com.finance_manager.model.Money;
 import com.finance_manager.model.MonthlyReport;
+import com.finance_manager.model.SummaryDrift;
+import com.finance_manager.model.TrendPeriod;
+import com.finance_manager.model.TrendPoint;
+import com.finance_manager.model.TrendReport;
+import com.finance_manager.service.CsvImportService;
 import com.finance_manager.service.ExpenseService;
+import com.finance_manager.service.HistoryPager;
 import com.finance_manager.service.IncomeService;
+import com.finance_manager.service.InstrumentedReportService;
+import com.finance_manager.service.LedgerService;
+import com.finance_manager.service.MonthlySummaryService;
+import com.finance_manager.service.ReportAccumulator;
 import com.finance_manager.service.ReportService;
-
+import com.finance_manager.service.SnapshotService;
+import com.finance_manager.utils.ReportWriter;
+import com.finance_manager.utils.generateBills;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Scanner;
 
 public class Main {
+    private static final int HISTORY_PAGE_SIZE = 25;
+
     public static void main(String[] args) {
 
-        IncomeService incomeService = new IncomeService();
-        ExpenseService expenseService = new ExpenseService();
-        ReportService reportService = new ReportService(incomeService, expenseService);
+        IncomeService incomeService;
+        ExpenseService expenseService;
+        ReportService reportService;
+        LedgerService ledgerService;
+        try {
+            incomeService = new IncomeService();
+            expenseService = new ExpenseService();
+            reportService = new InstrumentedReportService(incomeService, expenseService);
+            ledgerService = new LedgerService();
+        } catch (DatabaseOperationException e) {
+            System.out.println("Cannot open storage: " + e.getMessage());
+            DaoFactory.shutdown();
+            System.exit(1);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("serve")) {
+            serve(args, incomeService, expenseService, reportService, ledgerService);
+            return;
+        }
+        if (args.length > 0) {
+            int status;
+            try {
+                status = new BatchRunner(incomeService, expenseService, reportService, ledgerService, BatchRunner.standardOutput()).run(args);
+            } catch (IOException e) {
+                System.err.println("I/O error: " + e.getMessage());
+                status = 1;
+            }
+            reportService.shutdown();
+            incomeService.shutdown();
+            expenseService.shutdown();
+            DaoFactory.shutdown();
+            System.exit(status);
+        }
+        CsvImportService importService = new CsvImportService(incomeService, expenseService);
+        SnapshotService snapshotService = new SnapshotService(incomeService, expenseService);
+        FinanceMetrics.register();
 
         Scanner scanner = new Scanner(System.in);
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
@@ -42,10 +105,10 @@ public class Main {
                     handleViewMonthly(incomeService, expenseService, reportService, scanner);
                     break;
                 case "4":
-                    handleMonthlyReport(reportService, scanner);
+                    handleMonthlyReport(ledgerService, reportService, scanner);
                     break;
                 case "5":
-                    handleCustomReport(reportService, scanner, formatter);
+                    handleCustomReport(ledgerService, reportService, scanner, formatter);
                     break;
                 case "6":
                 handleUpdateIncome(scanner, incomeService, formatter);
@@ -59,8 +122,42 @@ public class Main {
             case "9":
                 handleDeleteExpense(scanner, expenseService);
                 break;
+            case "10":
+                handleImport(scanner, importService, true);
+                break;
+            case "11":
+                handleImport(scanner, importService, false);
+                break;
+            case "12":
+                handleVerifySummary(scanner, reportService);
+                break;
+            case "13":
+                handleShowMetrics(scanner, reportService);
+                break;
+            case "14":
+                handleTrendReport(scanner, reportService);
+                break;
+            case "15":
+                handleExportSnapshot(scanner, snapshotService);
+                break;
+            case "16":
+                handleRestoreSnapshot(scanner, snapshotService);
+                break;
+            case "17":
+                handleSnapshotReport(scanner, snapshotService, reportService, formatter);
+                break;
+            case "18":
+                handleStatements(scanner, new generateBills(ledgerService, reportService));
+                break;
+            case "19":
+                handleExportHistory(scanner, ledgerService, reportService, formatter);
+                break;
             case "0":
                     running = false;
+                    reportService.shutdown();
+                    incomeService.shutdown();
+                    expenseService.shutdown();
+                    DaoFactory.shutdown();
                     System.out.println("Exiting. Goodbye!");
                     break;
                 default:
@@ -72,6 +169,38 @@ public class Main {
         scanner.close();
     }
 
+    /**
+     * {@code serve [PORT]}: runs the HTTP API until the JVM is stopped; the shutdown hook closes
+     * the server and flushes the services.
+     */
+    private static void serve(String[] args, IncomeService incomeService, ExpenseService expenseService,
+                              ReportService reportService, LedgerService ledgerService) {
+        ApiServer server;
+        try {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : ApiServer.DEFAULT_PORT;
+            server = new ApiServer(incomeService, expenseService, reportService, ledgerService, port);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Cannot start API server: " + e.getMessage());
+            reportService.shutdown();
+            incomeService.shutdown();
+            expenseService.shutdown();
+            DaoFactory.shutdown();
+            System.exit(1);
+            return;
+        }
+        FinanceMetrics.register();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            reportService.shutdown();
+            incomeService.shutdown();
+            expenseService.shutdown();
+            DaoFactory.shutdown();
+        }));
+        server.start();
+        System.out.println("Listening on port " + server.getPort() + " ("
+                + (server.usesVirtualThreads() ? "virtual" : "platform") + " threads). Ctrl+C stops.");
+    }
+
     private static void printMenu() {
         System.out.println("=== Monthly Finance Manager ===");
         System.out.println("1) Add Income");
@@ -83,13 +212,23 @@ public class Main {
         System.out.println("7) Delete Income");
         System.out.println("8) Update Expense");
         System.out.println("9) Delete Expense");
+        System.out.println("10) Import Expenses from CSV");
+        System.out.println("11) Import Incomes from CSV");
+        System.out.println("12) Verify / Rebuild Monthly Summary");
+        System.out.println("13) Show Performance Metrics");
+        System.out.println("14) Trend Report (monthly / quarterly / yearly)");
+        System.out.println("15) Export Snapshot");
+        System.out.println("16) Restore Snapshot");
+        System.out.println("17) Report from Snapshot File");
+        System.out.println("18) Generate Monthly Statements");
+        System.out.println("19) Export History (CSV / JSON)");
         System.out.println("0) Exit");
     }
 
     private static void handleAddIncome(Scanner scanner, IncomeService incomeService, DateTimeFormatter formatter) {
         try {
             System.out.print("Amount: ");
-            double amount = Double.parseDouble(scanner.nextLine().trim());
+            long amount = Money.parse(scanner.nextLine().trim());
             System.out.print("Source: ");
             String source = scanner.nextLine().trim();
             System.out.print("Description: ");
@@ -118,7 +257,7 @@ public class Main {
     private static void handleAddExpense(Scanner scanner, ExpenseService expenseService, DateTimeFormatter formatter) {
         try {
             System.out.print("Amount: ");
-            double amount = Double.parseDouble(scanner.nextLine().trim());
+            long amount = Money.parse(scanner.nextLine().trim());
             System.out.print("Category: ");
             String category = scanner.nextLine().trim();
             System.out.print("Description: ");
@@ -153,9 +292,9 @@ public class Main {
 
             MonthlyReport report = reportService.generateMonthlyReport(year, month);
             System.out.println("--- Quick Monthly View ---");
-            System.out.printf("Total Income: %.2f\n", report.getTotalIncome());
-            System.out.printf("Total Expense: %.2f\n", report.getTotalExpense());
-            System.out.printf("Savings: %.2f\n", report.getSavings());
+            System.out.println("Total Income: " + Money.format(report.getTotalIncomeCents()));
+            System.out.println("Total Expense: " + Money.format(report.getTotalExpenseCents()));
+            System.out.println("Savings: " + Money.format(report.getSavingsCents()));
         } catch (NumberFormatException e) {
             System.out.println("Invalid number input.");
         } catch (DatabaseOperationException e) {
@@ -166,19 +305,22 @@ public class Main {
         }
     }
 
-    private static void handleMonthlyReport(ReportService reportService, Scanner scanner) {
+    private static void handleMonthlyReport(LedgerService ledgerService, ReportService reportService, Scanner scanner) {
         try {
             System.out.print("Enter year (e.g., 2026): ");
             int year = Integer.parseInt(scanner.nextLine().trim());
             System.out.print("Enter month (1-12): ");
             int month = Integer.parseInt(scanner.nextLine().trim());
 
-            MonthlyReport report = reportService.generateMonthlyReport(year, month);
+            LocalDate from = LocalDate.of(year, month, 1);
             System.out.println("--- Monthly report for " + year + "-" + String.format("%02d", month) + " ---");
-            printDetailedHistory(reportService, year, month);
-            printReport(report, "Summary");
+            MonthlyReport shown = printDetailedHistory(ledgerService, scanner, from, from.plusMonths(1).minusDays(1));
+            // Only when paging stopped early does the summary need a query of its own.
+            printReport(shown != null ? shown : reportService.generateMonthlyBreakdown(year, month), "Summary");
         } catch (NumberFormatException e) {
             System.out.println("Invalid number input.");
+        } catch (DateTimeException e) {
+            System.out.println("Invalid year/month.");
         } catch (DatabaseOperationException e) {
             System.out.println("DB Error: " + e.getMessage());
             if (e.getCause() != null) {
@@ -187,17 +329,16 @@ public class Main {
         }
     }
 
-    private static void handleCustomReport(ReportService reportService, Scanner scanner, DateTimeFormatter formatter) {
+    private static void handleCustomReport(LedgerService ledgerService, ReportService reportService, Scanner scanner, DateTimeFormatter formatter) {
         try {
             System.out.print("From date (yyyy-MM-dd): ");
             LocalDate from = LocalDate.parse(scanner.nextLine().trim(), formatter);
             System.out.print("To date (yyyy-MM-dd): ");
             LocalDate to = LocalDate.parse(scanner.nextLine().trim(), formatter);
 
-            MonthlyReport report = reportService.generateCustomDateReport(from, to);
             System.out.println("--- Custom date report " + from + " to " + to + " ---");
-            printDetailedHistory(reportService, from, to);
-            printReport(report, "Summary");
+            MonthlyReport shown = printDetailedHistory(ledgerService, scanner, from, to);
+            printReport(shown != null ? shown : reportService.generateCustomDateBreakdown(from, to), "Summary");
         } catch (DateTimeParseException e) {
             System.out.println("Invalid date format. Use yyyy-MM-dd.");
         } catch (DatabaseOperationException e) {
@@ -208,64 +349,117 @@ public class Main {
         }
     }
 
-    private static void printReport(MonthlyReport report, String title) {
-        System.out.println("--- " + title + " ---");
-        System.out.printf("Total Income : %.2f\n", report.getTotalIncome());
-        System.out.printf("Total Expense: %.2f\n", report.getTotalExpense());
-        System.out.printf("Savings      : %.2f\n", report.getSavings());
-    }
-
-    private static void printDetailedHistory(ReportService reportService, int year, int month) throws DatabaseOperationException {
-        List<Income> incomes = reportService.getIncomeService().getIncomeByMonth(year, month);
-        List<Expense> expenses = reportService.getExpenseService().getExpenseByMonth(year, month);
-        printTransactionHistory(incomes, expenses);
+    private static void handleTrendReport(Scanner scanner, ReportService reportService) {
+        try {
+            System.out.print("From month (yyyy-MM): ");
+            YearMonth from = YearMonth.parse(scanner.nextLine().trim());
+            System.out.print("To month (yyyy-MM) [leave empty for this month]: ");
+            String toStr = scanner.nextLine().trim();
+            YearMonth to = toStr.isEmpty() ? YearMonth.now() : YearMonth.parse(toStr);
+            System.out.print("Group by (M)onth, (Q)uarter or (Y)ear [M]: ");
+            TrendPeriod granularity = switch (scanner.nextLine().trim().toUpperCase()) {
+                case "Q" -> TrendPeriod.QUARTER;
+                case "Y" -> TrendPeriod.YEAR;
+                default -> TrendPeriod.MONTH;
+            };
+
+            TrendReport trend = reportService.generateTrend(from, to, granularity);
+            System.out.println("--- Trend " + trend.from() + " to " + trend.to() + " by " + granularity.name().toLowerCase() + " ---");
+            System.out.printf("%-10s %14s %14s %14s %14s %12s%n", "Period", "Income", "Expense", "Savings", "Cumulative", "Expense YoY");
+            List<TrendPoint> points = trend.points();
+            for (int i = 0; i < points.size(); i++) {
+                TrendPoint p = points.get(i);
+                TrendPoint yearEarlier = trend.yearEarlier(i);
+                String yoy = yearEarlier == null || yearEarlier.expense() == 0 ? "-"
+                        : String.format("%+.1f%%", (p.expense() - yearEarlier.expense()) * 100.0 / yearEarlier.expense());
+                System.out.printf("%-10s %14s %14s %14s %14s %12s%n", p.period(), Money.format(p.income()),
+                        Money.format(p.expense()), Money.format(p.savings()), Money.format(p.cumulativeSavings()), yoy);
+            }
+            System.out.printf("%-10s %14s %14s %14s%n", "Total", Money.format(trend.totalIncome()),
+                    Money.format(trend.totalExpense()), Money.format(trend.totalSavings()));
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid month format. Use yyyy-MM.");
+        } catch (DatabaseOperationException e) {
+            System.out.println("DB Error: " + e.getMessage());
+            if (e.getCause() != null) {
+                System.out.println("Cause: " + e.getCause().getMessage());
+            }
+        }
     }
 
-    private static void printDetailedHistory(ReportService reportService, LocalDate from, LocalDate to) throws DatabaseOperationException {
-        List<Income> incomes = reportService.getIncomeService().getIncomeByDateRange(from, to);
-        List<Expense> expenses = reportService.getExpenseService().getExpenseByDateRange(from, to);
-        printTransactionHistory(incomes, expenses);
+    private static void printReport(MonthlyReport report, String title) {
+        try (ReportWriter console = ReportWriter.toStream(System.out, ReportWriter.Format.CONSOLE)) {
+            console.summary(title, report);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    private static void printTransactionHistory(List<Income> incomes, List<Expense> expenses) {
+    /**
+     * Prints the history page by page and totals the rows as they go by. Returns the report of
+     * everything printed, or {@code null} if the user stopped before the last page.
+     */
+    private static MonthlyReport printDetailedHistory(LedgerService ledgerService, Scanner scanner, LocalDate from, LocalDate to) throws DatabaseOperationException {
         System.out.println("--- Detailed income / expense history ---");
-        record Movement(int Id ,LocalDate date, String type, String description, double change, double balance) {}
-
-        // Build a single list of movements
-        List<Movement> movements = new java.util.ArrayList<>();
-        for (Income i : incomes) {
-            movements.add(new Movement(i.getId(), i.getDate(), "INCOME", i.getSource() + " - " + i.getDescription(), i.getAmount(), 0));
-        }
-        for (Expense e : expenses) {
-            movements.add(new Movement(e.getId() , e.getDate(), "EXPENSE", e.getCategory() + " - " + e.getDescription(), -e.getAmount(), 0));
-        }
 
-        // Sort by date
-        movements.sort(Comparator.comparing(Movement::date));
-
-        if (movements.isEmpty()) {
+        // Rows arrive merged in date order with their running balance, one keyset page at a time.
+        HistoryPager pager = ledgerService.pageHistory(from, to, HISTORY_PAGE_SIZE);
+        ReportAccumulator summary = new ReportAccumulator();
+        if (!pager.hasMore()) {
             System.out.println("No transactions in this period.");
-            return;
+            return summary.toReport();
         }
+        try (ReportWriter console = ReportWriter.toStream(System.out, ReportWriter.Format.CONSOLE)) {
+            console.beginHistory();
+            for (int page = 1; ; page++) {
+                pager.nextPage((entry, balance) -> {
+                    summary.add(entry);
+                    console.historyRow(entry, balance);
+                });
+                if (!pager.hasMore()) {
+                    return summary.toReport();
+                }
+                // The page goes out in one write, ahead of the prompt.
+                console.flush();
+                System.out.print("-- page " + page + " -- Enter for the next page, q to stop: ");
+                if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                    return null;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-        System.out.printf(
-                "%-6s %-12s %-12s %-30s %12s %12s%n",
-                "ID", "Date", "Type", "Description", "Change", "Balance"
-        );
-
-        double balance = 0.0;
-
-        for (Movement m : movements) {
-            balance += m.change();
-            System.out.printf(
-                    "%-6d %-12s %-12s %-30s %12.2f %12.2f%n",
-                    m.Id(),
-                    m.date(),
-                    m.type(),
-                    m.description(),
-                    m.change(),
-                    balance
-            );
+    private static void handleExportHistory(Scanner scanner, LedgerService ledgerService, ReportService reportService, DateTimeFormatter formatter) {
+        try {
+            System.out.print("From date (yyyy-MM-dd): ");
+            LocalDate from = LocalDate.parse(scanner.nextLine().trim(), formatter);
+            System.out.print("To date (yyyy-MM-dd): ");
+            LocalDate to = LocalDate.parse(scanner.nextLine().trim(), formatter);
+            System.out.print("Format (csv/json) [csv]: ");
+            ReportWriter.Format format = scanner.nextLine().trim().equalsIgnoreCase("json")
+                    ? ReportWriter.Format.JSON : ReportWriter.Format.CSV;
+            System.out.print("Output file (- for the screen): ");
+            String target = scanner.nextLine().trim();
+
+            long start = System.nanoTime();
+            int rows;
+            try (ReportWriter writer = target.equals("-")
+                    ? ReportWriter.toStream(System.out, format) : ReportWriter.toFile(Path.of(target), format)) {
+                rows = writer.history(ledgerService, from, to);
+                writer.summary("Summary " + from + " to " + to, reportService.generateCustomDateBreakdown(from, to));
+            }
+            System.out.println("Exported " + rows + " transaction(s) in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date format. Use yyyy-MM-dd.");
+        } catch (InvalidPathException | IOException e) {
+            System.out.println("Could not write export: " + e.getMessage());
+        } catch (DatabaseOperationException e) {
+            System.out.println("DB Error: " + e.getMessage());
+            if (e.getCause() != null) {
+                System.out.println("Cause: " + e.getCause().getMessage());
+            }
         }
     }
 
@@ -275,7 +469,7 @@ public class Main {
             int id = Integer.parseInt(scanner.nextLine().trim());
 
             System.out.print("New amount: ");
-            double amount = Double.parseDouble(scanner.nextLine().trim());
+            long amount = Money.parse(scanner.nextLine().trim());
             System.out.print("New source: ");
             String source = scanner.nextLine().trim();
             System.out.print("New description: ");
@@ -320,7 +514,7 @@ public class Main {
             int id = Integer.parseInt(scanner.nextLine().trim());
 
             System.out.print("New amount: ");
-            double amount = Double.parseDouble(scanner.nextLine().trim());
+            long amount = Money.parse(scanner.nextLine().trim());
             System.out.print("New category: ");
             String category = scanner.nextLine().trim();
             System.out.print("New description: ");
@@ -358,4 +552,154 @@ public class Main {
             }
         }
     }
+
+    private static void handleImport(Scanner scanner, CsvImportService importService, boolean expenses) {
+        System.out.print("CSV file path (date,amount," + (expenses ? "category" : "source") + ",description): ");
+        String pathStr = scanner.nextLine().trim();
+        try (Reader reader = Files.newBufferedReader(Path.of(pathStr))) {
+            ImportResult result = expenses ? importService.importExpenses(reader) : importService.importIncomes(reader);
+            System.out.println("Imported " + result.getImportedCount() + " row(s), rejected " + result.getRowErrors().size() + ".");
+            int shown = 0;
+            for (ImportResult.RowError error : result.getRowErrors()) {
+                if (shown++ == 20) {
+                    System.out.println("... " + (result.getRowErrors().size() - 20) + " more");
+                    break;
+                }
+                System.out.println("  " + error);
+            }
+        } catch (InvalidPathException | IOException e) {
+            System.out.println("Could not read file: " + e.getMessage());
+        } catch (DatabaseOperationException e) {
+            System.out.println("DB Error: " + e.getMessage());
+            if (e.getCause() != null) {
+                System.out.println("Cause: " + e.getCause().getMessage());
+            }
+        }
+    }
+
+    private static void handleExportSnapshot(Scanner scanner, SnapshotService snapshotService) {
+        System.out.print("Snapshot file path: ");
+        String pathStr = scanner.nextLine().trim();
+        try {
+            long start = System.nanoTime();
+            int rows = snapshotService.export(Path.of(pathStr));
+            System.out.println("Exported " + rows + " row(s) in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        } catch (InvalidPathException | IOException e) {
+            System.out.println("Could not write file: " + e.getMessage());
+        } catch (DatabaseOperationException e) {
+            System.out.println("DB Error: " + e.getMessage());
+            if (e.getCause() != null) {
+                System.out.println("Cause: " + e.getCause().getMessage());
+            }
+        }
+    }
+
+    private static void handleRestoreSnapshot(Scanner scanner, SnapshotService snapshotService) {
+        System.out.print("Snapshot file path: ");
+        String pathStr = scanner.nextLine().trim();
+        System.out.print("Rows are added to the existing data with new ids. Continue? (y/N): ");
+        if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            int rows = snapshotService.restore(Path.of(pathStr));
+            System.out.println("Restored " + rows + " row(s) in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        } catch (InvalidPathException | IOException e) {
+            System.out.println("Could not read snapshot: " + e.getMessage());
+        } catch (InvalidAmountException e) {
+            System.out.println("Snapshot rejected: " + e.getMessage());
+        } catch (DatabaseOperationException e) {
+            System.out.println("DB Error: " + e.getMessage());
+            if (e.getCause() != null) {
+                System.out.println("Cause: " + e.getCause().getMessage());
+            }
+        }
+    }
+
+    private static void handleSnapshotReport(Scanner scanner, SnapshotService snapshotService, ReportService reportService, DateTimeFormatter formatter) {
+        try {
+            System.out.print("Snapshot file path: ");
+            ColumnarLedger ledger = snapshotService.load(Path.of(scanner.nextLine().trim()));
+            System.out.print("From date (yyyy-MM-dd): ");
+            LocalDate from = LocalDate.parse(scanner.nextLine().trim(), formatter);
+            System.out.print("To date (yyyy-MM-dd): ");
+            LocalDate to = LocalDate.parse(scanner.nextLine().trim(), formatter);
+            printReport(reportService.generateReport(ledger, from, to), "Snapshot report " + from + " to " + to);
+        } catch (InvalidPathException | IOException e) {
+            System.out.println("Could not read snapshot: " + e.getMessage());
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date format. Use yyyy-MM-dd.");
+        }
+    }
+
+    private static void handleStatements(Scanner scanner, generateBills bills) {
+        try {
+            System.out.print("From month (yyyy-MM): ");
+            YearMonth from = YearMonth.parse(scanner.nextLine().trim());
+            System.out.print("To month (yyyy-MM): ");
+            YearMonth to = YearMonth.parse(scanner.nextLine().trim());
+            System.out.print("Output directory: ");
+            Path directory = Path.of(scanner.nextLine().trim());
+            System.out.print("Format (text/csv) [text]: ");
+            generateBills.Format format = scanner.nextLine().trim().equalsIgnoreCase("csv")
+                    ? generateBills.Format.CSV : generateBills.Format.TEXT;
+            long start = System.nanoTime();
+            List<Path> files = bills.generate(from, to, directory, format);
+            System.out.println("Wrote " + files.size() + " statement(s) to " + directory + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid month format. Use yyyy-MM.");
+        } catch (InvalidPathException | IOException e) {
+            System.out.println("Could not write statements: " + e.getMessage());
+        } catch (DatabaseOperationException e) {
+            System.out.println("DB Error: " + e.getMessage());
+            if (e.getCause() != null) {
+                System.out.println("Cause: " + e.getCause().getMessage());
+            }
+        }
+    }
+
+    private static void handleVerifySummary(Scanner scanner, ReportService reportService) {
+        MonthlySummaryService summaryService = reportService.getSummaryService();
+        try {
+            List<SummaryDrift> drift = summaryService.verify();
+            if (drift.isEmpty()) {
+                System.out.println("Monthly summary matches the income and expense tables.");
+                return;
+            }
+            System.out.println("Monthly summary has drifted on " + drift.size() + " row(s):");
+            drift.stream().limit(20).forEach(d -> System.out.println("  " + d));
+            System.out.print("Rebuild the monthly summary now? (y/N): ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                summaryService.rebuild();
+                reportService.clearCache();
+                System.out.println("Monthly summary rebuilt.");
+            }
+        } catch (DatabaseOperationException e) {
+            System.out.println("DB Error: " + e.getMessage());
+            if (e.getCause() != null) {
+                System.out.println("Cause: " + e.getCause().getMessage());
+            }
+        }
+    }
+
+    private static void handleShowMetrics(Scanner scanner, ReportService reportService) {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        System.out.println("--- Operation Metrics (acquire = waiting for a connection, execute = statement execution, mapping = the rest) ---");
+        System.out.print(registry.dump());
+        try {
+            if (DaoFactory.getInstance().getStorage() == DaoFactory.Storage.MYSQL) {
+                System.out.println("Pool: " + DBConnection.getInstance().getPoolStats());
+            }
+        } catch (DatabaseOperationException e) {
+            System.out.println("Pool: unavailable (" + e.getMessage() + ")");
+        }
+        System.out.println("Report cache: " + reportService.getCacheStats());
+        System.out.print("Reset metrics? (y/N): ");
+        if (scanner.nextLine().trim().equalsIgnoreCase("y")) {
+            registry.reset();
+            System.out.println("Metrics reset.");
+        }
+    }
 }
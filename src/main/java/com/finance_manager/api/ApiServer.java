@@ -0,0 +1,426 @@
+package com.finance_manager.api;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.exceptions.InvalidAmountException;
+import com.finance_manager.exceptions.RecordNotFoundException;
+import com.finance_manager.metrics.MetricsRegistry;
+import com.finance_manager.model.Expense;
+import com.finance_manager.model.Income;
+import com.finance_manager.model.Money;
+import com.finance_manager.model.MonthlyReport;
+import com.finance_manager.service.ExpenseService;
+import com.finance_manager.service.IncomeService;
+import com.finance_manager.service.LedgerService;
+import com.finance_manager.service.ReportService;
+import com.finance_manager.utils.ReportWriter;
+import com.finance_manager.utils.ThreadExecutors;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded HTTP/JSON front end over the JDK's built-in {@link HttpServer}.
+ * <p>
+ * Routes:
+ * <ul>
+ *   <li>{@code POST /incomes}, {@code PUT|DELETE /incomes/{id}} and the same for {@code /expenses}.
+ *       Bodies are flat JSON objects: {@code amount}, {@code source} or {@code category},
+ *       {@code date} (yyyy-MM-dd, default today) and optional {@code description}; responses are
+ *       {@code {"id":n}}.</li>
+ *   <li>{@code GET /reports/monthly?year=&month=} and {@code GET /reports/range?from=&to=}: the
+ *       totals and breakdowns in the {@link ReportWriter} JSON layout.</li>
+ *   <li>{@code GET /history?from=&to=}: the range's history followed by its summary, streamed.</li>
+ *   <li>{@code GET /health}.</li>
+ * </ul>
+ * Errors are {@code {"error":"..."}} with status 400 for bad input, 404/405 for unknown routes,
+ * 503 when the database stays saturated and 500 for database failures.
+ * <p>
+ * Each request runs on its own virtual thread when the JVM has them (Java 21+) and on a fixed
+ * pool of platform threads otherwise. Either way a semaphore caps how many requests use the
+ * database at once, so a burst waits here rather than piling up inside the connection pool;
+ * a request that cannot get a permit within {@link #DB_WAIT_MILLIS} is answered with 503.
+ */
+public class ApiServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_DB_CONCURRENCY = 8;
+    private static final long DB_WAIT_MILLIS = 2_000;
+    private static final int PLATFORM_THREADS_PER_PERMIT = 4;
+    private static final int BACKLOG = 256;
+
+    static {
+        // The JDK server leaves Nagle's algorithm on by default; small JSON replies then wait out
+        // the client's delayed ACK, about 40 ms per request. Read once, when the server classes load.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final IncomeService incomeService;
+    private final ExpenseService expenseService;
+    private final ReportService reportService;
+    private final LedgerService ledgerService;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Semaphore database;
+    private final boolean virtualThreads;
+
+    public ApiServer(IncomeService incomeService, ExpenseService expenseService, ReportService reportService,
+                     LedgerService ledgerService, int port) throws IOException {
+        this(incomeService, expenseService, reportService, ledgerService, new InetSocketAddress(port),
+                Integer.parseInt(env("FINANCE_API_DB_CONCURRENCY", String.valueOf(DEFAULT_DB_CONCURRENCY))));
+    }
+
+    /**
+     * @param address       where to listen; port 0 picks a free port, see {@link #getPort()}
+     * @param dbConcurrency most requests using the database at once; keep it at or below the
+     *                      connection pool size
+     */
+    public ApiServer(IncomeService incomeService, ExpenseService expenseService, ReportService reportService,
+                     LedgerService ledgerService, InetSocketAddress address, int dbConcurrency) throws IOException {
+        if (dbConcurrency <= 0) {
+            throw new IllegalArgumentException("dbConcurrency must be positive: " + dbConcurrency);
+        }
+        this.incomeService = incomeService;
+        this.expenseService = expenseService;
+        this.reportService = reportService;
+        this.ledgerService = ledgerService;
+        this.database = new Semaphore(dbConcurrency, true);
+        ExecutorService virtual = ThreadExecutors.virtualThreadPerTask();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual
+                : ThreadExecutors.fixedDaemonPool("finance-api", dbConcurrency * PLATFORM_THREADS_PER_PERMIT);
+        this.server = HttpServer.create(address, BACKLOG);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stops accepting connections, gives requests in flight up to a second to finish and stops
+     * the request threads.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    private void handle(HttpExchange exchange) {
+        long start = System.nanoTime();
+        String route = "unknown";
+        int status = 500;
+        try {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            String method = exchange.getRequestMethod();
+            // Metric names come from known routes only, so stray paths cannot create new ones.
+            status = switch (path.length > 1 ? path[1] : "") {
+                case "health" -> {
+                    route = "health";
+                    yield send(exchange, 200, "{\"status\":\"ok\"}");
+                }
+                case "incomes" -> {
+                    route = writeRoute("incomes", method);
+                    yield handleIncome(exchange, method, path);
+                }
+                case "expenses" -> {
+                    route = writeRoute("expenses", method);
+                    yield handleExpense(exchange, method, path);
+                }
+                case "reports" -> {
+                    route = "reports";
+                    requireMethod(method, "GET");
+                    yield handleReport(exchange, path);
+                }
+                case "history" -> {
+                    route = "history";
+                    requireMethod(method, "GET");
+                    yield handleHistory(exchange);
+                }
+                default -> throw new ApiException(404, "No such resource: " + exchange.getRequestURI().getPath());
+            };
+        } catch (ApiException e) {
+            status = fail(exchange, e.status, e.getMessage());
+        } catch (InvalidAmountException | IllegalArgumentException | DateTimeException e) {
+            status = fail(exchange, 400, e.getMessage());
+        } catch (RecordNotFoundException e) {
+            status = fail(exchange, 404, e.getMessage());
+        } catch (DatabaseOperationException e) {
+            status = fail(exchange, 500, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = fail(exchange, 503, "Server shutting down");
+        } catch (Exception e) {
+            status = fail(exchange, 500, e.toString());
+        } finally {
+            exchange.close();
+            MetricsRegistry.getInstance().operation("api." + route).record(System.nanoTime() - start, 0, status >= 500);
+        }
+    }
+
+    private int handleIncome(HttpExchange exchange, String method, String[] path) throws Exception {
+        if (path.length == 2) {
+            requireMethod(method, "POST");
+            Income income = income(0, readBody(exchange));
+            withDatabase(() -> {
+                incomeService.addIncome(income);
+                return null;
+            });
+            return send(exchange, 201, "{\"id\":" + income.getId() + "}");
+        }
+        int id = id(path);
+        if (method.equals("PUT")) {
+            Income income = income(id, readBody(exchange));
+            withDatabase(() -> {
+                incomeService.updateIncome(income);
+                return null;
+            });
+        } else {
+            requireMethod(method, "DELETE");
+            withDatabase(() -> {
+                incomeService.deleteIncome(id);
+                return null;
+            });
+        }
+        return send(exchange, 200, "{\"id\":" + id + "}");
+    }
+
+    private int handleExpense(HttpExchange exchange, String method, String[] path) throws Exception {
+        if (path.length == 2) {
+            requireMethod(method, "POST");
+            Expense expense = expense(0, readBody(exchange));
+            withDatabase(() -> {
+                expenseService.addExpense(expense);
+                return null;
+            });
+            return send(exchange, 201, "{\"id\":" + expense.getId() + "}");
+        }
+        int id = id(path);
+        if (method.equals("PUT")) {
+            Expense expense = expense(id, readBody(exchange));
+            withDatabase(() -> {
+                expenseService.updateExpense(expense);
+                return null;
+            });
+        } else {
+            requireMethod(method, "DELETE");
+            withDatabase(() -> {
+                expenseService.deleteExpense(id);
+                return null;
+            });
+        }
+        return send(exchange, 200, "{\"id\":" + id + "}");
+    }
+
+    private int handleReport(HttpExchange exchange, String[] path) throws Exception {
+        Map<String, String> query = query(exchange);
+        String title;
+        MonthlyReport report;
+        switch (path.length > 2 ? path[2] : "") {
+            case "monthly" -> {
+                int year = Integer.parseInt(required(query, "year"));
+                int month = Integer.parseInt(required(query, "month"));
+                title = String.format("%d-%02d", year, month);
+                report = withDatabase(() -> reportService.generateMonthlyBreakdown(year, month));
+            }
+            case "range" -> {
+                LocalDate from = LocalDate.parse(required(query, "from"));
+                LocalDate to = LocalDate.parse(required(query, "to"));
+                title = from + " to " + to;
+                report = withDatabase(() -> reportService.generateCustomDateBreakdown(from, to));
+            }
+            default -> throw new ApiException(404, "No such report: " + exchange.getRequestURI().getPath());
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        try (ReportWriter writer = ReportWriter.toStream(exchange.getResponseBody(), ReportWriter.Format.JSON)) {
+            writer.summary(title, report);
+        }
+        return 200;
+    }
+
+    private int handleHistory(HttpExchange exchange) throws Exception {
+        Map<String, String> query = query(exchange);
+        LocalDate from = LocalDate.parse(required(query, "from"));
+        LocalDate to = LocalDate.parse(required(query, "to"));
+        // The permit is held while the rows stream out, since the history query keeps its connection.
+        return withDatabase(() -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            try (ReportWriter writer = ReportWriter.toStream(exchange.getResponseBody(), ReportWriter.Format.JSON)) {
+                writer.history(ledgerService, from, to);
+                writer.summary(from + " to " + to, reportService.generateCustomDateBreakdown(from, to));
+            }
+            return 200;
+        });
+    }
+
+    private <T> T withDatabase(DatabaseCall<T> call) throws Exception {
+        if (!database.tryAcquire(DB_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+            throw new ApiException(503, "Database busy, try again");
+        }
+        try {
+            return call.run();
+        } finally {
+            database.release();
+        }
+    }
+
+    private static Income income(int id, Map<String, String> body) {
+        return new Income(id, amount(body), required(body, "source"), body.get("description"), date(body));
+    }
+
+    private static Expense expense(int id, Map<String, String> body) {
+        return new Expense(id, amount(body), required(body, "category"), body.get("description"), date(body));
+    }
+
+    private static long amount(Map<String, String> body) {
+        String amount = required(body, "amount");
+        try {
+            return Money.parse(amount);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount, e);
+        }
+    }
+
+    private static LocalDate date(Map<String, String> body) {
+        String date = body.get("date");
+        return date == null ? LocalDate.now() : LocalDate.parse(date);
+    }
+
+    private static int id(String[] path) throws ApiException {
+        if (path.length != 3) {
+            throw new ApiException(404, "No such resource: " + String.join("/", path));
+        }
+        try {
+            return Integer.parseInt(path[2]);
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "No such id: " + path[2]);
+        }
+    }
+
+    private static String required(Map<String, String> values, String name) {
+        String value = values.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return value;
+    }
+
+    private static String writeRoute(String resource, String method) {
+        return switch (method) {
+            case "POST", "PUT", "DELETE" -> resource + "." + method;
+            default -> resource;
+        };
+    }
+
+    private static void requireMethod(String method, String allowed) throws ApiException {
+        if (!method.equals(allowed)) {
+            throw new ApiException(405, "Method " + method + " not allowed here");
+        }
+    }
+
+    private static Map<String, String> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return FlatJson.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> values = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return values;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                values.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return values;
+    }
+
+    private static int send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+        return status;
+    }
+
+    /**
+     * Sends an error body, unless a streamed response has already started; then the connection
+     * is just closed and the client sees a truncated body.
+     */
+    private static int fail(HttpExchange exchange, int status, String message) {
+        if (exchange.getResponseCode() != -1) {
+            return 500;
+        }
+        StringBuilder json = new StringBuilder("{\"error\":\"");
+        String text = message == null ? "" : message;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c >= 0x20) {
+                json.append(c);
+            }
+        }
+        try {
+            if (status == 503) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+            }
+            return send(exchange, status, json.append("\"}").toString());
+        } catch (IOException e) {
+            return status;
+        }
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getProperty(name, System.getenv(name));
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    @FunctionalInterface
+    private interface DatabaseCall<T> {
+        T run() throws Exception;
+    }
+
+    private static final class ApiException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
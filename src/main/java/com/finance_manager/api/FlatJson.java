@@ -0,0 +1,141 @@
+package com.finance_manager.api;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reader for the flat JSON objects the API accepts as request bodies: members may be strings,
+ * numbers, booleans or null, but not nested objects or arrays. Numbers and booleans are returned
+ * as their literal text, so amounts keep their exact decimal digits.
+ */
+final class FlatJson {
+    private final String text;
+    private int pos;
+
+    private FlatJson(String text) {
+        this.text = text;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code text} is not a flat JSON object
+     */
+    static Map<String, String> parse(String text) {
+        FlatJson reader = new FlatJson(text);
+        Map<String, String> members = reader.object();
+        reader.skipWhitespace();
+        if (reader.pos != text.length()) {
+            throw reader.error("trailing characters");
+        }
+        return members;
+    }
+
+    private Map<String, String> object() {
+        Map<String, String> members = new HashMap<>();
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return members;
+        }
+        while (true) {
+            skipWhitespace();
+            String name = string();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            members.put(name, value());
+            skipWhitespace();
+            char c = next();
+            if (c == '}') {
+                return members;
+            }
+            if (c != ',') {
+                throw error("expected ',' or '}'");
+            }
+        }
+    }
+
+    private String value() {
+        char c = peek();
+        if (c == '"') {
+            return string();
+        }
+        if (c == '{' || c == '[') {
+            throw error("nested values are not supported");
+        }
+        int start = pos;
+        while (pos < text.length() && ",} \t\r\n".indexOf(text.charAt(pos)) < 0) {
+            pos++;
+        }
+        String literal = text.substring(start, pos);
+        if (literal.isEmpty()) {
+            throw error("missing value");
+        }
+        return literal.equals("null") ? null : literal;
+    }
+
+    private String string() {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            char c = next();
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            char escaped = next();
+            switch (escaped) {
+                case '"', '\\', '/' -> sb.append(escaped);
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    if (pos + 4 > text.length()) {
+                        throw error("truncated escape");
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("invalid escape");
+                    }
+                    pos += 4;
+                }
+                default -> throw error("invalid escape");
+            }
+        }
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) {
+            throw error("expected '" + expected + "'");
+        }
+    }
+
+    private char peek() {
+        if (pos >= text.length()) {
+            throw error("unexpected end of input");
+        }
+        return text.charAt(pos);
+    }
+
+    private char next() {
+        char c = peek();
+        pos++;
+        return c;
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid JSON at offset " + pos + ": " + message);
+    }
+}
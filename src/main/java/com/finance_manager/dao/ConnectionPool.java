@@ -0,0 +1,500 @@
+package com.finance_manager.dao;
+
+import com.finance_manager.metrics.DbTimings;
+import com.finance_manager.metrics.MetricsRegistry;
+import com.finance_manager.metrics.OperationMetrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool.
+ * <p>
+ * Connections handed out by {@link #borrow()} are proxies: calling {@code close()} on them
+ * returns the physical connection to the pool instead of closing it, so DAO code keeps using
+ * plain try-with-resources. Idle connections are kept LIFO so the warmest one is reused first,
+ * validated on borrow, and evicted by a background sweeper once they have been idle too long.
+ * <p>
+ * Time spent waiting in {@link #borrow()} and executing statements is added to the calling
+ * thread's {@link DbTimings}, and borrow latency is also kept as the {@code pool.borrow} operation.
+ * <p>
+ * Each physical connection also keeps its prepared statements open in a small LRU cache keyed by
+ * SQL text and prepare options. Closing a statement puts it back in the cache with its
+ * parameters cleared, and the next {@code prepareStatement} for the same SQL on that connection
+ * reuses it. Nothing is parsed or planned again, and with server-side prepared statements there
+ * is no extra round trip either.
+ */
+public class ConnectionPool implements AutoCloseable {
+    /** Connections used within this window are assumed alive and skip the validation round trip. */
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long maxWaitMillis;
+    private final long idleTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledEntry> idle = new ConcurrentLinkedDeque<>();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder borrowNanos = new LongAdder();
+    private final AtomicLong maxBorrowNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private final LongAdder statementEvictions = new LongAdder();
+    private final OperationMetrics borrowMetrics = MetricsRegistry.getInstance().operation("pool.borrow");
+
+    public ConnectionPool(String url, String user, String password, int maxSize, long maxWaitMillis,
+                          long idleTimeoutMillis, int validationTimeoutSeconds) {
+        this(url, user, password, maxSize, maxWaitMillis, idleTimeoutMillis, validationTimeoutSeconds, 0);
+    }
+
+    /**
+     * @param statementCacheSize prepared statements kept open per connection; 0 disables caching
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize, long maxWaitMillis,
+                          long idleTimeoutMillis, int validationTimeoutSeconds, int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be greater than zero.");
+        }
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("Statement cache size must not be negative.");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting at most the configured max-wait time for one to become free.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+        long start = System.nanoTime();
+        waiters.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a DB connection", e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+        if (!acquired) {
+            timeouts.increment();
+            long waited = System.nanoTime() - start;
+            DbTimings.addAcquire(waited);
+            borrowMetrics.record(waited, 0, true);
+            throw new SQLException("Timed out after " + maxWaitMillis + " ms waiting for a DB connection (active="
+                    + active.get() + ", max=" + maxSize + ")");
+        }
+
+        try {
+            PooledEntry entry = takeValidIdle();
+            if (entry == null) {
+                entry = new PooledEntry(DriverManager.getConnection(url, user, password));
+                created.increment();
+            }
+            active.incrementAndGet();
+            recordBorrow(System.nanoTime() - start);
+            return entry.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledEntry takeValidIdle() {
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            long now = System.currentTimeMillis();
+            if (now - entry.lastUsed > idleTimeoutMillis) {
+                destroy(entry);
+                continue;
+            }
+            if (now - entry.lastUsed > VALIDATION_BYPASS_MILLIS && !isValid(entry)) {
+                destroy(entry);
+                continue;
+            }
+            return entry;
+        }
+        return null;
+    }
+
+    private boolean isValid(PooledEntry entry) {
+        try {
+            return entry.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void recordBorrow(long nanos) {
+        DbTimings.addAcquire(nanos);
+        borrowMetrics.record(nanos, 1, false);
+        borrows.increment();
+        borrowNanos.add(nanos);
+        maxBorrowNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void release(PooledEntry entry) {
+        try {
+            if (closed || entry.physical.isClosed()) {
+                destroy(entry);
+                return;
+            }
+            if (!entry.physical.getAutoCommit()) {
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+            if (entry.physical.isReadOnly()) {
+                entry.physical.setReadOnly(false);
+            }
+            entry.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(entry);
+        } catch (SQLException e) {
+            destroy(entry);
+        } finally {
+            active.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledEntry> it = idle.descendingIterator();
+        while (it.hasNext()) {
+            PooledEntry entry = it.next();
+            if (now - entry.lastUsed > idleTimeoutMillis && idle.removeLastOccurrence(entry)) {
+                destroy(entry);
+            }
+        }
+    }
+
+    private void destroy(PooledEntry entry) {
+        destroyed.increment();
+        entry.statements.clear();
+        try {
+            entry.physical.close();
+        } catch (SQLException ignored) {
+            // connection is being discarded anyway
+        }
+    }
+
+    public PoolStats getStats() {
+        long count = borrows.sum();
+        double avgMillis = count == 0 ? 0.0 : borrowNanos.sum() / (double) count / 1_000_000.0;
+        return new PoolStats(active.get(), idle.size(), waiters.get(), maxSize, count, timeouts.sum(),
+                created.sum(), destroyed.sum(), avgMillis, maxBorrowNanos.get() / 1_000_000.0,
+                statementHits.sum(), statementMisses.sum(), statementEvictions.sum());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool. Every borrow gets a fresh proxy handle so a
+     * stale reference kept by a caller cannot touch the connection after it was returned.
+     */
+    private final class PooledEntry {
+        private final Connection physical;
+        private final StatementCache statements = new StatementCache();
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private PooledEntry(Connection physical) {
+            this.physical = physical;
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Handle(this));
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final PooledEntry entry;
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        private Handle(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + "]";
+                default:
+                    break;
+            }
+            if (returned.get()) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            StatementKey key = statementCacheSize > 0 && method.getName().equals("prepareStatement") ? StatementKey.of(args) : null;
+            if (key != null) {
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[]{PreparedStatement.class}, new CachedStatement(entry, key, prepare(key)));
+            }
+            Object result;
+            try {
+                result = method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement && method.getReturnType().isInterface()) {
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()}, new TimedStatement(result));
+            }
+            return result;
+        }
+
+        /**
+         * Takes a cached statement for {@code key} or prepares a new one on the physical connection.
+         */
+        private PreparedStatement prepare(StatementKey key) throws SQLException {
+            PreparedStatement cached = entry.statements.take(key);
+            if (cached != null && !cached.isClosed()) {
+                statementHits.increment();
+                return cached;
+            }
+            statementMisses.increment();
+            if (key.generatedKeys() != Statement.NO_GENERATED_KEYS) {
+                return entry.physical.prepareStatement(key.sql(), key.generatedKeys());
+            }
+            return entry.physical.prepareStatement(key.sql(), key.resultSetType(), key.concurrency());
+        }
+    }
+
+    /**
+     * SQL text plus the prepare options that change the statement the driver builds. Overloads
+     * with column indexes, column names or holdability are not cached.
+     */
+    private record StatementKey(String sql, int generatedKeys, int resultSetType, int concurrency) {
+        static StatementKey of(Object[] args) {
+            if (args.length == 1) {
+                return new StatementKey((String) args[0], Statement.NO_GENERATED_KEYS, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            }
+            if (args.length == 2 && args[1] instanceof Integer generatedKeys) {
+                return new StatementKey((String) args[0], generatedKeys, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            }
+            if (args.length == 3) {
+                return new StatementKey((String) args[0], Statement.NO_GENERATED_KEYS, (Integer) args[1], (Integer) args[2]);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Idle prepared statements of one physical connection in least-recently-used order. A
+     * statement is out of the cache while a caller holds it, so two users of the same SQL on one
+     * connection, e.g. nested streams, get separate statements.
+     */
+    private final class StatementCache {
+        private final LinkedHashMap<StatementKey, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+        synchronized PreparedStatement take(StatementKey key) {
+            return statements.remove(key);
+        }
+
+        /**
+         * Keeps {@code statement} for reuse, closing it instead if an equal one is already idle,
+         * and closes the least recently used one once the cache is over its size.
+         */
+        synchronized void put(StatementKey key, PreparedStatement statement) {
+            if (statements.putIfAbsent(key, statement) != null) {
+                closeQuietly(statement);
+                return;
+            }
+            if (statements.size() > statementCacheSize) {
+                Iterator<PreparedStatement> eldest = statements.values().iterator();
+                closeQuietly(eldest.next());
+                eldest.remove();
+                statementEvictions.increment();
+            }
+        }
+
+        synchronized void clear() {
+            statements.values().forEach(ConnectionPool::closeQuietly);
+            statements.clear();
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // the statement is being discarded anyway
+        }
+    }
+
+    /**
+     * Adds the time spent in {@code execute*} calls to the caller's {@link DbTimings}. With
+     * cursor fetch enabled, later fetches happen inside {@code ResultSet.next()} and are not
+     * counted here.
+     */
+    private static class TimedStatement implements InvocationHandler {
+        private final Object statement;
+
+        private TimedStatement(Object statement) {
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            boolean execute = method.getName().startsWith("execute");
+            long start = execute ? System.nanoTime() : 0;
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (execute) {
+                    DbTimings.addExecute(System.nanoTime() - start);
+                }
+            }
+        }
+    }
+
+    /**
+     * A cached statement lent to a caller. {@code close()} resets it and hands it back to its
+     * connection's cache: the last result set is closed, parameters and batch are cleared, and
+     * fetch size, row limit and timeout go back to their defaults if the caller changed them.
+     * A statement that cannot be reset is closed for real.
+     */
+    private static final class CachedStatement extends TimedStatement {
+        private final PooledEntry owner;
+        private final StatementKey key;
+        private final PreparedStatement statement;
+        private ResultSet lastResult;
+        private boolean batched;
+        private boolean configured;
+        private boolean closed;
+
+        private CachedStatement(PooledEntry owner, StatementKey key, PreparedStatement statement) {
+            super(statement);
+            this.owner = owner;
+            this.key = key;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        recycle();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "addBatch":
+                    batched = true;
+                    break;
+                case "setFetchSize", "setMaxRows", "setLargeMaxRows", "setQueryTimeout":
+                    configured = true;
+                    break;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed.");
+            }
+            Object result = super.invoke(proxy, method, args);
+            if (result instanceof ResultSet resultSet) {
+                lastResult = resultSet;
+            }
+            return result;
+        }
+
+        private void recycle() {
+            try {
+                if (lastResult != null && !lastResult.isClosed()) {
+                    lastResult.close();
+                }
+                statement.clearParameters();
+                if (batched) {
+                    statement.clearBatch();
+                }
+                if (configured) {
+                    statement.setFetchSize(0);
+                    statement.setMaxRows(0);
+                    statement.setQueryTimeout(0);
+                }
+                statement.clearWarnings();
+                owner.statements.put(key, statement);
+            } catch (SQLException e) {
+                closeQuietly(statement);
+            }
+        }
+    }
+}
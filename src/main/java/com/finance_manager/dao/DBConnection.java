@@ -2,16 +2,29 @@ package com.finance_manager.dao;
 
 import com.finance_manager.exceptions.DatabaseOperationException;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DBConnection {
-    private static final String DEFAULT_DB_URL = "jdbc:mysql://localhost:3307/finance_db";
+    // Server-side prepared statements: parsed once per connection and kept open by the pool's
+    // statement cache. useCursorFetch would turn them on anyway; the driver's own cache
+    // (cachePrepStmts) stays off because the pool already keeps the statements.
+    private static final String DEFAULT_DB_URL = "jdbc:mysql://localhost:3307/finance_db?rewriteBatchedStatements=true&useCursorFetch=true&useServerPrepStmts=true";
     private static final String DEFAULT_DB_USER = "root";
     private static final String DEFAULT_DB_PASSWORD = "root123";
 
-    private static DBConnection instance;
+    private static final int DEFAULT_POOL_SIZE = 10;
+    private static final long DEFAULT_POOL_MAX_WAIT_MILLIS = 5_000;
+    private static final long DEFAULT_POOL_IDLE_TIMEOUT_MILLIS = 300_000;
+    private static final int DEFAULT_VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
+    private static volatile DBConnection instance;
+
+    private final ConnectionPool pool;
+    private final ThreadLocal<Connection> transactionConnection = new ThreadLocal<>();
 
     private DBConnection() throws DatabaseOperationException {
         try {
@@ -19,20 +32,142 @@ public class DBConnection {
         } catch (ClassNotFoundException e) {
             throw new DatabaseOperationException("MySQL JDBC Driver not found", e);
         }
+        try {
+            this.pool = new ConnectionPool(
+                    env("FINANCE_DB_URL", DEFAULT_DB_URL),
+                    env("FINANCE_DB_USER", DEFAULT_DB_USER),
+                    env("FINANCE_DB_PASSWORD", DEFAULT_DB_PASSWORD),
+                    Integer.parseInt(env("FINANCE_DB_POOL_SIZE", String.valueOf(DEFAULT_POOL_SIZE))),
+                    Long.parseLong(env("FINANCE_DB_POOL_MAX_WAIT_MS", String.valueOf(DEFAULT_POOL_MAX_WAIT_MILLIS))),
+                    Long.parseLong(env("FINANCE_DB_POOL_IDLE_TIMEOUT_MS", String.valueOf(DEFAULT_POOL_IDLE_TIMEOUT_MILLIS))),
+                    DEFAULT_VALIDATION_TIMEOUT_SECONDS,
+                    Integer.parseInt(env("FINANCE_DB_STMT_CACHE_SIZE", String.valueOf(DEFAULT_STATEMENT_CACHE_SIZE))));
+        } catch (IllegalArgumentException e) {
+            throw new DatabaseOperationException("Invalid connection pool configuration: " + e.getMessage(), e);
+        }
     }
 
-    public static synchronized DBConnection getInstance() throws DatabaseOperationException {
-        if (instance == null) {
-            instance = new DBConnection();
+    public static DBConnection getInstance() throws DatabaseOperationException {
+        DBConnection local = instance;
+        if (local == null) {
+            synchronized (DBConnection.class) {
+                local = instance;
+                if (local == null) {
+                    local = new DBConnection();
+                    instance = local;
+                }
+            }
         }
-        return instance;
+        return local;
     }
 
+    /**
+     * Borrows a pooled connection. Closing the returned connection hands it back to the pool.
+     * Inside {@link #inTransaction(TransactionCallback)} the transaction's connection is returned
+     * instead, and closing it is a no-op.
+     */
     public Connection getConnection() throws DatabaseOperationException {
+        Connection bound = transactionConnection.get();
+        if (bound != null) {
+            return nonClosing(bound);
+        }
         try {
-            return DriverManager.getConnection(DEFAULT_DB_URL, DEFAULT_DB_USER, DEFAULT_DB_PASSWORD);
+            return pool.borrow();
         } catch (SQLException e) {
             throw new DatabaseOperationException("Failed to obtain DB connection", e);
         }
     }
+
+    /**
+     * Borrows a pooled connection of its own even inside {@link #inTransaction(TransactionCallback)},
+     * for small writes that must commit independently of the caller's transaction.
+     */
+    public Connection getDetachedConnection() throws DatabaseOperationException {
+        try {
+            return pool.borrow();
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Failed to obtain DB connection", e);
+        }
+    }
+
+    /**
+     * Runs {@code work} in a single transaction bound to the calling thread. Every DAO call made
+     * by {@code work} on this thread shares the connection, so their writes commit or roll back
+     * together. Nested calls join the outer transaction.
+     */
+    public <T> T inTransaction(TransactionCallback<T> work) throws DatabaseOperationException {
+        return inTransaction(work, false);
+    }
+
+    /**
+     * Like {@link #inTransaction(TransactionCallback)}, but read-only, so every read made by
+     * {@code work} sees the same consistent snapshot. The pool clears the flag when the
+     * connection is returned. Nested calls join the outer transaction as it is.
+     */
+    public <T> T inReadOnlyTransaction(TransactionCallback<T> work) throws DatabaseOperationException {
+        return inTransaction(work, true);
+    }
+
+    private <T> T inTransaction(TransactionCallback<T> work, boolean readOnly) throws DatabaseOperationException {
+        if (transactionConnection.get() != null) {
+            return work.doInTransaction();
+        }
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            if (readOnly) {
+                conn.setReadOnly(true);
+            }
+            transactionConnection.set(conn);
+            try {
+                T result = work.doInTransaction();
+                conn.commit();
+                return result;
+            } catch (DatabaseOperationException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                transactionConnection.remove();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Transaction failed: " + e.getMessage(), e);
+        }
+    }
+
+    public PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    /**
+     * Closes the pool if it was ever created. Safe to call more than once.
+     */
+    public static void shutdown() {
+        synchronized (DBConnection.class) {
+            if (instance != null) {
+                instance.pool.close();
+                instance = null;
+            }
+        }
+    }
+
+    private static Connection nonClosing(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * Reads a setting from a JVM system property of the same name, then the environment.
+     */
+    private static String env(String name, String defaultValue) {
+        String value = System.getProperty(name, System.getenv(name));
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
 }
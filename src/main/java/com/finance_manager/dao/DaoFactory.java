@@ -0,0 +1,173 @@
+package com.finance_manager.dao;
+
+import com.finance_manager.dao.impl.FileExpenseDAO;
+import com.finance_manager.dao.impl.FileIncomeDAO;
+import com.finance_manager.dao.impl.FileLedgerDAO;
+import com.finance_manager.dao.impl.FileMonthlySummaryDAO;
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.interfaces.ExpenseDAO;
+import com.finance_manager.interfaces.IncomeDAO;
+import com.finance_manager.interfaces.LedgerDAO;
+import com.finance_manager.interfaces.MonthlySummaryDAO;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out the DAOs of the configured storage backend. {@code FINANCE_STORAGE} selects it:
+ * {@code mysql} (the default) or {@code file}, which keeps everything in append-only logs under
+ * {@code FINANCE_DATA_DIR} (default {@code data}) and needs no database server. With
+ * {@code FINANCE_FILE_SYNC=true} every file write is forced to disk before it returns.
+ */
+public final class DaoFactory {
+    public enum Storage { MYSQL, FILE }
+
+    private static final String DEFAULT_DATA_DIR = "data";
+
+    private static volatile DaoFactory instance;
+
+    private final Storage storage;
+    private final Path dataDirectory;
+    private final boolean syncEveryWrite;
+    // File backend: one set of DAOs per process, since each owns its open log.
+    private final ReentrantLock fileTransactionLock = new ReentrantLock();
+    private FileIncomeDAO fileIncomeDAO;
+    private FileExpenseDAO fileExpenseDAO;
+
+    private DaoFactory(Storage storage, Path dataDirectory, boolean syncEveryWrite) {
+        this.storage = storage;
+        this.dataDirectory = dataDirectory;
+        this.syncEveryWrite = syncEveryWrite;
+    }
+
+    public static DaoFactory getInstance() throws DatabaseOperationException {
+        DaoFactory local = instance;
+        if (local == null) {
+            synchronized (DaoFactory.class) {
+                local = instance;
+                if (local == null) {
+                    local = fromEnv();
+                    instance = local;
+                }
+            }
+        }
+        return local;
+    }
+
+    private static DaoFactory fromEnv() throws DatabaseOperationException {
+        String name = env("FINANCE_STORAGE", "mysql");
+        Storage storage;
+        try {
+            storage = Storage.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new DatabaseOperationException("Unknown FINANCE_STORAGE '" + name + "', expected mysql or file", e);
+        }
+        return new DaoFactory(storage, Path.of(env("FINANCE_DATA_DIR", DEFAULT_DATA_DIR)),
+                Boolean.parseBoolean(env("FINANCE_FILE_SYNC", "false")));
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    public ExpenseDAO expenseDAO() throws DatabaseOperationException {
+        if (storage == Storage.MYSQL) {
+            return new com.finance_manager.dao.impl.ExpenseDAO();
+        }
+        openFiles();
+        return fileExpenseDAO;
+    }
+
+    public IncomeDAO incomeDAO() throws DatabaseOperationException {
+        if (storage == Storage.MYSQL) {
+            return new com.finance_manager.dao.impl.IncomeDAO();
+        }
+        openFiles();
+        return fileIncomeDAO;
+    }
+
+    public LedgerDAO ledgerDAO() throws DatabaseOperationException {
+        if (storage == Storage.MYSQL) {
+            return new com.finance_manager.dao.impl.LedgerDAO();
+        }
+        openFiles();
+        return new FileLedgerDAO(fileIncomeDAO, fileExpenseDAO);
+    }
+
+    public MonthlySummaryDAO monthlySummaryDAO() throws DatabaseOperationException {
+        if (storage == Storage.MYSQL) {
+            return new com.finance_manager.dao.impl.MonthlySummaryDAO();
+        }
+        openFiles();
+        return new FileMonthlySummaryDAO(fileIncomeDAO, fileExpenseDAO);
+    }
+
+    /**
+     * Runs {@code work} as one unit. On MySQL this is {@link DBConnection#inTransaction}. On the
+     * file backend units run one at a time, so a read-then-write inside {@code work} sees no
+     * interleaved writes, but there is no rollback: writes made before a failure stay.
+     */
+    public <T> T inTransaction(TransactionCallback<T> work) throws DatabaseOperationException {
+        if (storage == Storage.MYSQL) {
+            return DBConnection.getInstance().inTransaction(work);
+        }
+        fileTransactionLock.lock();
+        try {
+            return work.doInTransaction();
+        } finally {
+            fileTransactionLock.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code work} as one read-only unit: {@link DBConnection#inReadOnlyTransaction} on
+     * MySQL, the same one-at-a-time lock as {@link #inTransaction} on the file backend.
+     */
+    public <T> T inReadOnlyTransaction(TransactionCallback<T> work) throws DatabaseOperationException {
+        if (storage == Storage.MYSQL) {
+            return DBConnection.getInstance().inReadOnlyTransaction(work);
+        }
+        return inTransaction(work);
+    }
+
+    private synchronized void openFiles() throws DatabaseOperationException {
+        if (fileExpenseDAO == null) {
+            FileIncomeDAO incomes = new FileIncomeDAO(dataDirectory, syncEveryWrite);
+            fileExpenseDAO = new FileExpenseDAO(dataDirectory, syncEveryWrite);
+            fileIncomeDAO = incomes;
+        }
+    }
+
+    private synchronized void closeFiles() {
+        try {
+            if (fileIncomeDAO != null) {
+                fileIncomeDAO.close();
+            }
+            if (fileExpenseDAO != null) {
+                fileExpenseDAO.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing data files: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the data files and the connection pool, whichever were opened. Safe to call more than once.
+     */
+    public static void shutdown() {
+        synchronized (DaoFactory.class) {
+            if (instance != null) {
+                instance.closeFiles();
+                instance = null;
+            }
+        }
+        DBConnection.shutdown();
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getProperty(name, System.getenv(name));
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,35 @@
+package com.finance_manager.dao;
+
+/**
+ * Point-in-time snapshot of the connection pool counters.
+ */
+public record PoolStats(int active,
+                        int idle,
+                        int waiters,
+                        int maxSize,
+                        long totalBorrows,
+                        long timeouts,
+                        long created,
+                        long destroyed,
+                        double avgBorrowMillis,
+                        double maxBorrowMillis,
+                        long statementCacheHits,
+                        long statementCacheMisses,
+                        long statementCacheEvictions) {
+
+    /**
+     * Share of {@code prepareStatement} calls served from the statement cache, 0 to 1.
+     */
+    public double statementCacheHitRatio() {
+        long lookups = statementCacheHits + statementCacheMisses;
+        return lookups == 0 ? 0.0 : statementCacheHits / (double) lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PoolStats{active=%d, idle=%d, waiters=%d, max=%d, borrows=%d, timeouts=%d, created=%d, destroyed=%d, avgBorrow=%.3fms, maxBorrow=%.3fms, "
+                        + "stmtCache{hits=%d, misses=%d, evictions=%d, hitRatio=%.1f%%}}",
+                active, idle, waiters, maxSize, totalBorrows, timeouts, created, destroyed, avgBorrowMillis, maxBorrowMillis,
+                statementCacheHits, statementCacheMisses, statementCacheEvictions, statementCacheHitRatio() * 100);
+    }
+}
@@ -0,0 +1,11 @@
+package com.finance_manager.dao;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+
+/**
+ * Unit of work run by {@link DBConnection#inTransaction(TransactionCallback)}.
+ */
+@FunctionalInterface
+public interface TransactionCallback<T> {
+    T doInTransaction() throws DatabaseOperationException;
+}
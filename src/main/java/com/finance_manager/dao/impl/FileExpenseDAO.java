@@ -0,0 +1,170 @@
+package com.finance_manager.dao.impl;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.interfaces.ColumnVisitor;
+import com.finance_manager.model.Expense;
+import com.finance_manager.model.MonthlySummaryRow;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Expenses kept in {@code expense.log} under a data directory instead of MySQL; see
+ * {@link RecordLog} for the file format. Reads are served from memory-mapped pages through an
+ * in-memory date index, so results come back in (date, id) order.
+ */
+public class FileExpenseDAO implements com.finance_manager.interfaces.ExpenseDAO, Closeable {
+
+    private static final RecordLog.RowMapper<Expense> MAPPER =
+            (id, date, amount, category, description) -> new Expense(id, amount, category, description, date);
+
+    private final RecordLog log;
+
+    public FileExpenseDAO(Path directory, boolean syncEveryWrite) throws DatabaseOperationException {
+        try {
+            this.log = new RecordLog(directory, "expense", syncEveryWrite);
+        } catch (IOException e) {
+            throw new DatabaseOperationException("Error opening expense log: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void insertExpense(Expense expense) throws DatabaseOperationException {
+        try {
+            expense.setId(log.insert(entry(expense)));
+        } catch (IOException e) {
+            throw new DatabaseOperationException("Error inserting expense: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Appends every expense in one step; after a crash either all of them are present or none.
+     */
+    @Override
+    public void insertExpenses(List<Expense> expenses) throws DatabaseOperationException {
+        if (expenses == null || expenses.isEmpty()) {
+            return;
+        }
+        List<RecordLog.Entry> entries = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            entries.add(entry(expense));
+        }
+        try {
+            int[] ids = log.insertAll(entries);
+            for (int i = 0; i < ids.length; i++) {
+                expenses.get(i).setId(ids[i]);
+            }
+        } catch (IOException e) {
+            throw new DatabaseOperationException("Error batch inserting expense: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Expense fetchById(int id) {
+        return log.get(id, MAPPER);
+    }
+
+    @Override
+    public List<Expense> fetchByMonth(int year, int month) throws DatabaseOperationException {
+        LocalDate start = firstDayOfMonth(year, month);
+        return log.list(start.toEpochDay(), start.plusMonths(1).toEpochDay() - 1, MAPPER);
+    }
+
+    @Override
+    public List<Expense> fetchByDateRange(LocalDate from, LocalDate to) {
+        return log.list(from.toEpochDay(), to.toEpochDay(), MAPPER);
+    }
+
+    @Override
+    public List<Expense> fetchPage(LocalDate from, LocalDate to, LocalDate afterDate, int afterId, int limit) {
+        return log.page(from.toEpochDay(), to.toEpochDay(), afterDate == null ? null : afterDate.toEpochDay(), afterId, limit, MAPPER);
+    }
+
+    @Override
+    public void streamByDateRange(LocalDate from, LocalDate to, Consumer<Expense> visitor) {
+        log.forEach(from.toEpochDay(), to.toEpochDay(), MAPPER, visitor);
+    }
+
+    @Override
+    public void scanByDateRange(LocalDate from, LocalDate to, ColumnVisitor visitor) {
+        log.scan(from.toEpochDay(), to.toEpochDay(), visitor);
+    }
+
+    @Override
+    public long sumByMonth(int year, int month) throws DatabaseOperationException {
+        LocalDate start = firstDayOfMonth(year, month);
+        return log.sum(start.toEpochDay(), start.plusMonths(1).toEpochDay() - 1);
+    }
+
+    @Override
+    public long sumByDateRange(LocalDate from, LocalDate to) {
+        return log.sum(from.toEpochDay(), to.toEpochDay());
+    }
+
+    @Override
+    public Map<String, Long> sumByCategory(LocalDate from, LocalDate to) {
+        return log.sumByLabel(from.toEpochDay(), to.toEpochDay(), MonthlySummaryRow.EXPENSE_FALLBACK_LABEL);
+    }
+
+    @Override
+    public void updateExpense(Expense expense) throws DatabaseOperationException {
+        if (expense == null || expense.getId() <= 0) {
+            throw new DatabaseOperationException("Expense id must be provided for update.");
+        }
+        try {
+            if (!log.update(entry(expense))) {
+                throw new DatabaseOperationException("Updating expense failed, no rows affected.");
+            }
+        } catch (IOException e) {
+            throw new DatabaseOperationException("Error updating expense: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void deleteExpense(int id) throws DatabaseOperationException {
+        try {
+            if (!log.delete(id)) {
+                throw new DatabaseOperationException("Deleting expense failed, no rows affected (id may not exist).");
+            }
+        } catch (IOException e) {
+            throw new DatabaseOperationException("Error deleting expense: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rewrites the log without superseded and deleted records. Also happens on its own once they
+     * outnumber the live ones.
+     */
+    public void compact() throws DatabaseOperationException {
+        try {
+            log.compact();
+        } catch (IOException e) {
+            throw new DatabaseOperationException("Error compacting expense log: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    private static RecordLog.Entry entry(Expense expense) {
+        return new RecordLog.Entry(expense.getId(), expense.getDate(), expense.getAmountCents(),
+                expense.getCategory(), expense.getDescription());
+    }
+
+    private static LocalDate firstDayOfMonth(int year, int month) throws DatabaseOperationException {
+        try {
+            return LocalDate.of(year, month, 1);
+        } catch (DateTimeException e) {
+            throw new DatabaseOperationException("Invalid year/month: " + year + "-" + month, e);
+        }
+    }
+}
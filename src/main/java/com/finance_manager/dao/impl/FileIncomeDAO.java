@@ -0,0 +1,170 @@
+package com.finance_manager.dao.impl;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.interfaces.ColumnVisitor;
+import com.finance_manager.model.Income;
+import com.finance_manager.model.MonthlySummaryRow;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Incomes kept in {@code income.log} under a data directory instead of MySQL; see
+ * {@link RecordLog} for the file format. Reads are served from memory-mapped pages through an
+ * in-memory date index, so results come back in (date, id) order.
+ */
+public class FileIncomeDAO implements com.finance_manager.interfaces.IncomeDAO, Closeable {
+
+    private static final RecordLog.RowMapper<Income> MAPPER =
+            (id, date, amount, source, description) -> new Income(id, amount, source, description, date);
+
+    private final RecordLog log;
+
+    public FileIncomeDAO(Path directory, boolean syncEveryWrite) throws DatabaseOperationException {
+        try {
+            this.log = new RecordLog(directory, "income", syncEveryWrite);
+        } catch (IOException e) {
+            throw new DatabaseOperationException("Error opening income log: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void insertIncome(Income income) throws DatabaseOperationException {
+        try {
+            income.setId(log.insert(entry(income)));
+        } catch (IOException e) {
+            throw new DatabaseOperationException("Error inserting income: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Appends every income in one step; after a crash either all of them are present or none.
+     */
+    @Override
+    public void insertIncomes(List<Income> incomes) throws DatabaseOperationException {
+        if (incomes == null || incomes.isEmpty()) {
+            return;
+        }
+        List<RecordLog.Entry> entries = new ArrayList<>(incomes.size());
+        for (Income income : incomes) {
+            entries.add(entry(income));
+        }
+        try {
+            int[] ids = log.insertAll(entries);
+            for (int i = 0; i < ids.length; i++) {
+                incomes.get(i).setId(ids[i]);
+            }
+        } catch (IOException e) {
+            throw new DatabaseOperationException("Error batch inserting income: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Income fetchById(int id) {
+        return log.get(id, MAPPER);
+    }
+
+    @Override
+    public List<Income> fetchByMonth(int year, int month) throws DatabaseOperationException {
+        LocalDate start = firstDayOfMonth(year, month);
+        return log.list(start.toEpochDay(), start.plusMonths(1).toEpochDay() - 1, MAPPER);
+    }
+
+    @Override
+    public List<Income> fetchByDateRange(LocalDate from, LocalDate to) {
+        return log.list(from.toEpochDay(), to.toEpochDay(), MAPPER);
+    }
+
+    @Override
+    public List<Income> fetchPage(LocalDate from, LocalDate to, LocalDate afterDate, int afterId, int limit) {
+        return log.page(from.toEpochDay(), to.toEpochDay(), afterDate == null ? null : afterDate.toEpochDay(), afterId, limit, MAPPER);
+    }
+
+    @Override
+    public void streamByDateRange(LocalDate from, LocalDate to, Consumer<Income> visitor) {
+        log.forEach(from.toEpochDay(), to.toEpochDay(), MAPPER, visitor);
+    }
+
+    @Override
+    public void scanByDateRange(LocalDate from, LocalDate to, ColumnVisitor visitor) {
+        log.scan(from.toEpochDay(), to.toEpochDay(), visitor);
+    }
+
+    @Override
+    public long sumByMonth(int year, int month) throws DatabaseOperationException {
+        LocalDate start = firstDayOfMonth(year, month);
+        return log.sum(start.toEpochDay(), start.plusMonths(1).toEpochDay() - 1);
+    }
+
+    @Override
+    public long sumByDateRange(LocalDate from, LocalDate to) {
+        return log.sum(from.toEpochDay(), to.toEpochDay());
+    }
+
+    @Override
+    public Map<String, Long> sumBySource(LocalDate from, LocalDate to) {
+        return log.sumByLabel(from.toEpochDay(), to.toEpochDay(), MonthlySummaryRow.INCOME_FALLBACK_LABEL);
+    }
+
+    @Override
+    public void updateIncome(Income income) throws DatabaseOperationException {
+        if (income == null || income.getId() <= 0) {
+            throw new DatabaseOperationException("Income id must be provided for update.");
+        }
+        try {
+            if (!log.update(entry(income))) {
+                throw new DatabaseOperationException("Updating income failed, no rows affected.");
+            }
+        } catch (IOException e) {
+            throw new DatabaseOperationException("Error updating income: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void deleteIncome(int id) throws DatabaseOperationException {
+        try {
+            if (!log.delete(id)) {
+                throw new DatabaseOperationException("Deleting income failed, no rows affected (id may not exist).");
+            }
+        } catch (IOException e) {
+            throw new DatabaseOperationException("Error deleting income: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rewrites the log without superseded and deleted records. Also happens on its own once they
+     * outnumber the live ones.
+     */
+    public void compact() throws DatabaseOperationException {
+        try {
+            log.compact();
+        } catch (IOException e) {
+            throw new DatabaseOperationException("Error compacting income log: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    private static RecordLog.Entry entry(Income income) {
+        return new RecordLog.Entry(income.getId(), income.getDate(), income.getAmountCents(),
+                income.getSource(), income.getDescription());
+    }
+
+    private static LocalDate firstDayOfMonth(int year, int month) throws DatabaseOperationException {
+        try {
+            return LocalDate.of(year, month, 1);
+        } catch (DateTimeException e) {
+            throw new DatabaseOperationException("Invalid year/month: " + year + "-" + month, e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.finance_manager.dao.impl;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.interfaces.ExpenseDAO;
+import com.finance_manager.interfaces.IncomeDAO;
+import com.finance_manager.model.Expense;
+import com.finance_manager.model.Income;
+import com.finance_manager.model.LedgerEntry;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * {@link com.finance_manager.interfaces.LedgerDAO} over the file-backed DAOs. Both are read a
+ * page at a time in (date, id) order and the two pages are merged, so memory use stays bounded.
+ */
+public class FileLedgerDAO implements com.finance_manager.interfaces.LedgerDAO {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final IncomeDAO incomeDAO;
+    private final ExpenseDAO expenseDAO;
+
+    public FileLedgerDAO(IncomeDAO incomeDAO, ExpenseDAO expenseDAO) {
+        this.incomeDAO = incomeDAO;
+        this.expenseDAO = expenseDAO;
+    }
+
+    @Override
+    public void streamMerged(LocalDate from, LocalDate to, Consumer<LedgerEntry> visitor) throws DatabaseOperationException {
+        List<Income> incomes = incomeDAO.fetchPage(from, to, null, 0, PAGE_SIZE);
+        List<Expense> expenses = expenseDAO.fetchPage(from, to, null, 0, PAGE_SIZE);
+        int i = 0;
+        int e = 0;
+        while (i < incomes.size() || e < expenses.size()) {
+            Income income = i < incomes.size() ? incomes.get(i) : null;
+            Expense expense = e < expenses.size() ? expenses.get(e) : null;
+            // On the same date incomes go first, as in the MySQL ledger.
+            if (expense == null || (income != null && !income.getDate().isAfter(expense.getDate()))) {
+                visitor.accept(new LedgerEntry(income.getId(), income.getDate(), LedgerEntry.INCOME,
+                        income.getSource(), income.getDescription(), income.getAmountCents()));
+                if (++i == incomes.size() && incomes.size() == PAGE_SIZE) {
+                    incomes = incomeDAO.fetchPage(from, to, income.getDate(), income.getId(), PAGE_SIZE);
+                    i = 0;
+                }
+            } else {
+                visitor.accept(new LedgerEntry(expense.getId(), expense.getDate(), LedgerEntry.EXPENSE,
+                        expense.getCategory(), expense.getDescription(), -expense.getAmountCents()));
+                if (++e == expenses.size() && expenses.size() == PAGE_SIZE) {
+                    expenses = expenseDAO.fetchPage(from, to, expense.getDate(), expense.getId(), PAGE_SIZE);
+                    e = 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.finance_manager.dao.impl;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.interfaces.ExpenseDAO;
+import com.finance_manager.interfaces.IncomeDAO;
+import com.finance_manager.model.MonthlySummaryRow;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link com.finance_manager.interfaces.MonthlySummaryDAO} for the file-backed DAOs. Nothing is
+ * stored: every read is computed by scanning the in-memory date index of the two logs, which is
+ * fast enough that a persisted rollup would only add a second copy to keep in step. Deltas are
+ * therefore ignored and the rollup can never drift.
+ */
+public class FileMonthlySummaryDAO implements com.finance_manager.interfaces.MonthlySummaryDAO {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(1000, 1, 1);
+    private static final LocalDate LAST_DAY = LocalDate.of(9999, 12, 31);
+
+    // Same order as the MySQL ENUM('INCOME', 'EXPENSE').
+    private static final Comparator<MonthlySummaryRow> KIND_ORDER =
+            Comparator.comparing(row -> MonthlySummaryRow.EXPENSE.equals(row.kind()));
+
+    private final IncomeDAO incomeDAO;
+    private final ExpenseDAO expenseDAO;
+
+    public FileMonthlySummaryDAO(IncomeDAO incomeDAO, ExpenseDAO expenseDAO) {
+        this.incomeDAO = incomeDAO;
+        this.expenseDAO = expenseDAO;
+    }
+
+    @Override
+    public void applyDeltas(List<MonthlySummaryRow> deltas) {
+        // Computed on read.
+    }
+
+    @Override
+    public List<MonthlySummaryRow> fetchByMonth(int year, int month) throws DatabaseOperationException {
+        YearMonth period = YearMonth.of(year, month);
+        List<MonthlySummaryRow> rows = compute(period.atDay(1), period.atEndOfMonth(), true);
+        rows.sort(KIND_ORDER.thenComparing(MonthlySummaryRow::total, Comparator.reverseOrder()));
+        return rows;
+    }
+
+    @Override
+    public List<MonthlySummaryRow> fetchMonthlyTotals(YearMonth from, YearMonth to) throws DatabaseOperationException {
+        List<MonthlySummaryRow> rows = compute(from.atDay(1), to.atEndOfMonth(), false);
+        rows.sort(Comparator.comparingInt(MonthlySummaryRow::year).thenComparingInt(MonthlySummaryRow::month).thenComparing(KIND_ORDER));
+        return rows;
+    }
+
+    @Override
+    public List<MonthlySummaryRow> computeFromBaseTables() throws DatabaseOperationException {
+        return compute(FIRST_DAY, LAST_DAY, true);
+    }
+
+    @Override
+    public List<MonthlySummaryRow> fetchAll() throws DatabaseOperationException {
+        return computeFromBaseTables();
+    }
+
+    @Override
+    public void rebuild() {
+        // Nothing stored, nothing to rebuild.
+    }
+
+    private List<MonthlySummaryRow> compute(LocalDate from, LocalDate to, boolean byLabel) throws DatabaseOperationException {
+        Map<String, MonthlySummaryRow> rows = new LinkedHashMap<>();
+        incomeDAO.scanByDateRange(from, to, (id, epochDay, amount, label) ->
+                add(rows, MonthlySummaryRow.INCOME, epochDay, label, amount, byLabel));
+        expenseDAO.scanByDateRange(from, to, (id, epochDay, amount, label) ->
+                add(rows, MonthlySummaryRow.EXPENSE, epochDay, label, amount, byLabel));
+        return new ArrayList<>(rows.values());
+    }
+
+    private static void add(Map<String, MonthlySummaryRow> rows, String kind, int epochDay, String label, long amount, boolean byLabel) {
+        MonthlySummaryRow row = MonthlySummaryRow.delta(kind, LocalDate.ofEpochDay(epochDay), label, amount, 1);
+        if (!byLabel) {
+            row = new MonthlySummaryRow(row.year(), row.month(), kind, null, amount, 1);
+        }
+        rows.merge(row.key(), row, MonthlySummaryRow::plus);
+    }
+}
@@ -2,27 +2,49 @@ package com.finance_manager.dao.impl;
 
 import com.finance_manager.dao.DBConnection;
 import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.interfaces.ColumnVisitor;
 import com.finance_manager.model.Income;
+import com.finance_manager.model.Money;
+import com.finance_manager.model.MonthlySummaryRow;
 
 import java.sql.*;
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class IncomeDAO implements com.finance_manager.interfaces.IncomeDAO {
 
-    private static final String INSERT_SQL = "INSERT INTO income (amount, source, description, date) VALUES (?, ?, ?, ?)";
-    private static final String FETCH_BY_MONTH_SQL = "SELECT id, amount, source, description, date FROM income WHERE YEAR(date) = ? AND MONTH(date) = ?";
-    private static final String FETCH_BY_RANGE_SQL = "SELECT id, amount, source, description, date FROM income WHERE date BETWEEN ? AND ?";
-    private static final String UPDATE_SQL = "UPDATE income SET amount = ?, source = ?, description = ?, date = ? WHERE id = ?";
+    private static final int BATCH_SIZE = 500;
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private static final String INSERT_SQL = "INSERT INTO income (amount_cents, source_id, description, date) VALUES (?, ?, ?, ?)";
+    private static final String FETCH_BY_ID_SQL = "SELECT id, amount_cents, source_id, description, date FROM income WHERE id = ? FOR UPDATE";
+    private static final String FETCH_BY_MONTH_SQL = "SELECT id, amount_cents, source_id, description, date FROM income WHERE date >= ? AND date < ?";
+    private static final String FETCH_BY_RANGE_SQL = "SELECT id, amount_cents, source_id, description, date FROM income WHERE date BETWEEN ? AND ?";
+    // InnoDB secondary indexes end with the primary key, so idx_income_date serves (date, id) order.
+    private static final String FETCH_PAGE_SQL = "SELECT id, amount_cents, source_id, description, date FROM income "
+            + "WHERE date BETWEEN ? AND ? AND (date > ? OR (date = ? AND id > ?)) ORDER BY date, id LIMIT ?";
+    private static final String STREAM_BY_RANGE_SQL = "SELECT id, amount_cents, source_id, description, date FROM income WHERE date BETWEEN ? AND ? ORDER BY date, id";
+    private static final String SUM_BY_MONTH_SQL = "SELECT COALESCE(SUM(amount_cents), 0) FROM income WHERE date >= ? AND date < ?";
+    private static final String SUM_BY_RANGE_SQL = "SELECT COALESCE(SUM(amount_cents), 0) FROM income WHERE date BETWEEN ? AND ?";
+    private static final String SUM_BY_SOURCE_SQL = "SELECT source_id, SUM(amount_cents) AS total FROM income WHERE date BETWEEN ? AND ? GROUP BY source_id ORDER BY total DESC";
+    // TO_DAYS('1970-01-01') = 719528, so this yields LocalDate.toEpochDay() without a Date object per row.
+    private static final String SCAN_BY_RANGE_SQL = "SELECT id, TO_DAYS(date) - 719528, amount_cents, source_id FROM income WHERE date BETWEEN ? AND ?";
+    private static final String UPDATE_SQL = "UPDATE income SET amount_cents = ?, source_id = ?, description = ?, date = ? WHERE id = ?";
     private static final String DELETE_SQL = "DELETE FROM income WHERE id = ?";
 
+    private final LabelDictionary sources = LabelDictionary.incomeSources();
+
     @Override
     public void insertIncome(Income income) throws DatabaseOperationException {
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setDouble(1, income.getAmount());
-            ps.setString(2, income.getSource());
+            ps.setLong(1, income.getAmountCents());
+            sources.bind(ps, 2, income.getSource());
             ps.setString(3, income.getDescription());
             ps.setDate(4, Date.valueOf(income.getDate()));
 
@@ -40,17 +62,81 @@ public class IncomeDAO implements com.finance_manager.interfaces.IncomeDAO {
         }
     }
 
+    /**
+     * Inserts the rows with JDBC batching, committing every {@value #BATCH_SIZE} rows, and sets the
+     * generated id on each income. When called inside an outer transaction the commits are left to
+     * the caller. If a chunk fails, earlier chunks stay committed and keep their ids.
+     */
+    @Override
+    public void insertIncomes(List<Income> incomes) throws DatabaseOperationException {
+        if (incomes == null || incomes.isEmpty()) {
+            return;
+        }
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            boolean manageTx = conn.getAutoCommit();
+            if (manageTx) {
+                conn.setAutoCommit(false);
+            }
+            try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int start = 0; start < incomes.size(); start += BATCH_SIZE) {
+                    int end = Math.min(start + BATCH_SIZE, incomes.size());
+                    for (int i = start; i < end; i++) {
+                        Income income = incomes.get(i);
+                        ps.setLong(1, income.getAmountCents());
+                        sources.bind(ps, 2, income.getSource());
+                        ps.setString(3, income.getDescription());
+                        ps.setDate(4, Date.valueOf(income.getDate()));
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet rs = ps.getGeneratedKeys()) {
+                        for (int i = start; i < end && rs.next(); i++) {
+                            incomes.get(i).setId(rs.getInt(1));
+                        }
+                    }
+                    if (manageTx) {
+                        conn.commit();
+                    }
+                }
+            } catch (SQLException e) {
+                if (manageTx) {
+                    conn.rollback();
+                }
+                throw e;
+            } finally {
+                if (manageTx) {
+                    conn.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error batch inserting income: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Income fetchById(int id) throws DatabaseOperationException {
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FETCH_BY_ID_SQL)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? mapRow(rs) : null;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error fetching income by id: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public List<Income> fetchByMonth(int year, int month) throws DatabaseOperationException {
         List<Income> list = new ArrayList<>();
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement ps = conn.prepareStatement(FETCH_BY_MONTH_SQL)) {
-            ps.setInt(1, year);
-            ps.setInt(2, month);
+            LocalDate start = firstDayOfMonth(year, month);
+            ps.setDate(1, Date.valueOf(start));
+            ps.setDate(2, Date.valueOf(start.plusMonths(1)));
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Income income = new Income(rs.getInt("id"), rs.getDouble("amount"), rs.getString("source"), rs.getString("description"), rs.getDate("date").toLocalDate());
-                    list.add(income);
+                    list.add(mapRow(rs));
                 }
             }
         } catch (SQLException e) {
@@ -68,8 +154,7 @@ public class IncomeDAO implements com.finance_manager.interfaces.IncomeDAO {
             ps.setDate(2, Date.valueOf(to));
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Income income = new Income(rs.getInt("id"), rs.getDouble("amount"), rs.getString("source"), rs.getString("description"), rs.getDate("date").toLocalDate());
-                    list.add(income);
+                    list.add(mapRow(rs));
                 }
             }
         } catch (SQLException e) {
@@ -78,6 +163,112 @@ public class IncomeDAO implements com.finance_manager.interfaces.IncomeDAO {
         return list;
     }
 
+    @Override
+    public List<Income> fetchPage(LocalDate from, LocalDate to, LocalDate afterDate, int afterId, int limit) throws DatabaseOperationException {
+        if (limit <= 0) {
+            throw new DatabaseOperationException("Page size must be greater than zero.");
+        }
+        // The first page starts "after id 0 on the first day", which is every row in the range.
+        LocalDate cursorDate = afterDate == null ? from : afterDate;
+        int cursorId = afterDate == null ? 0 : afterId;
+        List<Income> page = new ArrayList<>(Math.min(limit, 1024));
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FETCH_PAGE_SQL)) {
+            ps.setDate(1, Date.valueOf(from));
+            ps.setDate(2, Date.valueOf(to));
+            ps.setDate(3, Date.valueOf(cursorDate));
+            ps.setDate(4, Date.valueOf(cursorDate));
+            ps.setInt(5, cursorId);
+            ps.setInt(6, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    page.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error fetching income page: " + e.getMessage(), e);
+        }
+        return page;
+    }
+
+    @Override
+    public void streamByDateRange(LocalDate from, LocalDate to, Consumer<Income> visitor) throws DatabaseOperationException {
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(STREAM_BY_RANGE_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            ps.setDate(1, Date.valueOf(from));
+            ps.setDate(2, Date.valueOf(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    visitor.accept(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error streaming income by date range: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void scanByDateRange(LocalDate from, LocalDate to, ColumnVisitor visitor) throws DatabaseOperationException {
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(SCAN_BY_RANGE_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            ps.setDate(1, Date.valueOf(from));
+            ps.setDate(2, Date.valueOf(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    visitor.accept(rs.getInt(1), rs.getInt(2), rs.getLong(3), sources.read(rs, 4));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error scanning income by date range: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long sumByMonth(int year, int month) throws DatabaseOperationException {
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(SUM_BY_MONTH_SQL)) {
+            LocalDate start = firstDayOfMonth(year, month);
+            ps.setDate(1, Date.valueOf(start));
+            ps.setDate(2, Date.valueOf(start.plusMonths(1)));
+            return querySingleLong(ps);
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error summing income by month: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long sumByDateRange(LocalDate from, LocalDate to) throws DatabaseOperationException {
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(SUM_BY_RANGE_SQL)) {
+            ps.setDate(1, Date.valueOf(from));
+            ps.setDate(2, Date.valueOf(to));
+            return querySingleLong(ps);
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error summing income by date range: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<String, Long> sumBySource(LocalDate from, LocalDate to) throws DatabaseOperationException {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(SUM_BY_SOURCE_SQL)) {
+            ps.setDate(1, Date.valueOf(from));
+            ps.setDate(2, Date.valueOf(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String label = sources.read(rs, 1);
+                    totals.merge(label != null ? label : MonthlySummaryRow.INCOME_FALLBACK_LABEL, rs.getLong(2), Money::add);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error summing income by source: " + e.getMessage(), e);
+        }
+        return totals;
+    }
+
     @Override
     public void updateIncome(Income income) throws DatabaseOperationException {
         if (income == null || income.getId() <= 0) {
@@ -86,8 +277,8 @@ public class IncomeDAO implements com.finance_manager.interfaces.IncomeDAO {
 
         try (Connection conn = DBConnection.getInstance().getConnection();
              PreparedStatement ps = conn.prepareStatement(UPDATE_SQL)) {
-            ps.setDouble(1, income.getAmount());
-            ps.setString(2, income.getSource());
+            ps.setLong(1, income.getAmountCents());
+            sources.bind(ps, 2, income.getSource());
             ps.setString(3, income.getDescription());
             ps.setDate(4, Date.valueOf(income.getDate()));
             ps.setInt(5, income.getId());
@@ -114,4 +305,25 @@ public class IncomeDAO implements com.finance_manager.interfaces.IncomeDAO {
             throw new DatabaseOperationException("Error deleting income: " + e.getMessage(), e);
         }
     }
+
+    private static LocalDate firstDayOfMonth(int year, int month) throws DatabaseOperationException {
+        try {
+            return LocalDate.of(year, month, 1);
+        } catch (DateTimeException e) {
+            throw new DatabaseOperationException("Invalid year/month: " + year + "-" + month, e);
+        }
+    }
+
+    private static long querySingleLong(PreparedStatement ps) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+
+    /**
+     * Expects the columns in SELECT order: id, amount_cents, source_id, description, date.
+     */
+    private Income mapRow(ResultSet rs) throws SQLException, DatabaseOperationException {
+        return new Income(rs.getInt(1), rs.getLong(2), sources.read(rs, 3), rs.getString(4), rs.getDate(5).toLocalDate());
+    }
 }
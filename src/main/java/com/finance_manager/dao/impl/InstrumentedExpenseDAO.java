@@ -0,0 +1,149 @@
+package com.finance_manager.dao.impl;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.interfaces.ColumnVisitor;
+import com.finance_manager.interfaces.ExpenseDAO;
+import com.finance_manager.metrics.MetricsRegistry;
+import com.finance_manager.metrics.OperationMetrics;
+import com.finance_manager.model.Expense;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Records calls, errors, rows and latency of every {@link ExpenseDAO} call under
+ * {@code expense.<method>} in the {@link MetricsRegistry}, then delegates.
+ */
+public class InstrumentedExpenseDAO implements ExpenseDAO {
+    private final ExpenseDAO delegate;
+    private final OperationMetrics insert;
+    private final OperationMetrics insertBatch;
+    private final OperationMetrics fetchById;
+    private final OperationMetrics fetchByMonth;
+    private final OperationMetrics fetchByDateRange;
+    private final OperationMetrics fetchPage;
+    private final OperationMetrics streamByDateRange;
+    private final OperationMetrics scanByDateRange;
+    private final OperationMetrics sumByMonth;
+    private final OperationMetrics sumByDateRange;
+    private final OperationMetrics sumByCategory;
+    private final OperationMetrics update;
+    private final OperationMetrics delete;
+
+    public InstrumentedExpenseDAO(ExpenseDAO delegate) {
+        this(delegate, MetricsRegistry.getInstance());
+    }
+
+    public InstrumentedExpenseDAO(ExpenseDAO delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.insert = registry.operation("expense.insert");
+        this.insertBatch = registry.operation("expense.insertBatch");
+        this.fetchById = registry.operation("expense.fetchById");
+        this.fetchByMonth = registry.operation("expense.fetchByMonth");
+        this.fetchByDateRange = registry.operation("expense.fetchByDateRange");
+        this.fetchPage = registry.operation("expense.fetchPage");
+        this.streamByDateRange = registry.operation("expense.streamByDateRange");
+        this.scanByDateRange = registry.operation("expense.scanByDateRange");
+        this.sumByMonth = registry.operation("expense.sumByMonth");
+        this.sumByDateRange = registry.operation("expense.sumByDateRange");
+        this.sumByCategory = registry.operation("expense.sumByCategory");
+        this.update = registry.operation("expense.update");
+        this.delete = registry.operation("expense.delete");
+    }
+
+    @Override
+    public void insertExpense(Expense expense) throws DatabaseOperationException {
+        insert.time(() -> {
+            delegate.insertExpense(expense);
+            return null;
+        }, ignored -> 1);
+    }
+
+    @Override
+    public void insertExpenses(List<Expense> expenses) throws DatabaseOperationException {
+        insertBatch.time(() -> {
+            delegate.insertExpenses(expenses);
+            return null;
+        }, ignored -> expenses.size());
+    }
+
+    @Override
+    public Expense fetchById(int id) throws DatabaseOperationException {
+        return fetchById.time(() -> delegate.fetchById(id), expense -> expense == null ? 0 : 1);
+    }
+
+    @Override
+    public List<Expense> fetchByMonth(int year, int month) throws DatabaseOperationException {
+        return fetchByMonth.time(() -> delegate.fetchByMonth(year, month), List::size);
+    }
+
+    @Override
+    public List<Expense> fetchByDateRange(LocalDate from, LocalDate to) throws DatabaseOperationException {
+        return fetchByDateRange.time(() -> delegate.fetchByDateRange(from, to), List::size);
+    }
+
+    @Override
+    public List<Expense> fetchPage(LocalDate from, LocalDate to, LocalDate afterDate, int afterId, int limit) throws DatabaseOperationException {
+        return fetchPage.time(() -> delegate.fetchPage(from, to, afterDate, afterId, limit), List::size);
+    }
+
+    /**
+     * The recorded latency includes the time {@code visitor} spends on each row.
+     */
+    @Override
+    public void streamByDateRange(LocalDate from, LocalDate to, Consumer<Expense> visitor) throws DatabaseOperationException {
+        long[] rows = new long[1];
+        streamByDateRange.time(() -> {
+            delegate.streamByDateRange(from, to, expense -> {
+                rows[0]++;
+                visitor.accept(expense);
+            });
+            return null;
+        }, ignored -> rows[0]);
+    }
+
+    @Override
+    public void scanByDateRange(LocalDate from, LocalDate to, ColumnVisitor visitor) throws DatabaseOperationException {
+        long[] rows = new long[1];
+        scanByDateRange.time(() -> {
+            delegate.scanByDateRange(from, to, (id, epochDay, amount, label) -> {
+                rows[0]++;
+                visitor.accept(id, epochDay, amount, label);
+            });
+            return null;
+        }, ignored -> rows[0]);
+    }
+
+    @Override
+    public long sumByMonth(int year, int month) throws DatabaseOperationException {
+        return sumByMonth.time(() -> delegate.sumByMonth(year, month), ignored -> 1);
+    }
+
+    @Override
+    public long sumByDateRange(LocalDate from, LocalDate to) throws DatabaseOperationException {
+        return sumByDateRange.time(() -> delegate.sumByDateRange(from, to), ignored -> 1);
+    }
+
+    @Override
+    public Map<String, Long> sumByCategory(LocalDate from, LocalDate to) throws DatabaseOperationException {
+        return sumByCategory.time(() -> delegate.sumByCategory(from, to), Map::size);
+    }
+
+    @Override
+    public void updateExpense(Expense expense) throws DatabaseOperationException {
+        update.time(() -> {
+            delegate.updateExpense(expense);
+            return null;
+        }, ignored -> 1);
+    }
+
+    @Override
+    public void deleteExpense(int id) throws DatabaseOperationException {
+        delete.time(() -> {
+            delegate.deleteExpense(id);
+            return null;
+        }, ignored -> 1);
+    }
+}
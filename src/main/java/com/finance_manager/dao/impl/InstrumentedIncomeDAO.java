@@ -0,0 +1,149 @@
+package com.finance_manager.dao.impl;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.interfaces.ColumnVisitor;
+import com.finance_manager.interfaces.IncomeDAO;
+import com.finance_manager.metrics.MetricsRegistry;
+import com.finance_manager.metrics.OperationMetrics;
+import com.finance_manager.model.Income;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Records calls, errors, rows and latency of every {@link IncomeDAO} call under
+ * {@code income.<method>} in the {@link MetricsRegistry}, then delegates.
+ */
+public class InstrumentedIncomeDAO implements IncomeDAO {
+    private final IncomeDAO delegate;
+    private final OperationMetrics insert;
+    private final OperationMetrics insertBatch;
+    private final OperationMetrics fetchById;
+    private final OperationMetrics fetchByMonth;
+    private final OperationMetrics fetchByDateRange;
+    private final OperationMetrics fetchPage;
+    private final OperationMetrics streamByDateRange;
+    private final OperationMetrics scanByDateRange;
+    private final OperationMetrics sumByMonth;
+    private final OperationMetrics sumByDateRange;
+    private final OperationMetrics sumBySource;
+    private final OperationMetrics update;
+    private final OperationMetrics delete;
+
+    public InstrumentedIncomeDAO(IncomeDAO delegate) {
+        this(delegate, MetricsRegistry.getInstance());
+    }
+
+    public InstrumentedIncomeDAO(IncomeDAO delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.insert = registry.operation("income.insert");
+        this.insertBatch = registry.operation("income.insertBatch");
+        this.fetchById = registry.operation("income.fetchById");
+        this.fetchByMonth = registry.operation("income.fetchByMonth");
+        this.fetchByDateRange = registry.operation("income.fetchByDateRange");
+        this.fetchPage = registry.operation("income.fetchPage");
+        this.streamByDateRange = registry.operation("income.streamByDateRange");
+        this.scanByDateRange = registry.operation("income.scanByDateRange");
+        this.sumByMonth = registry.operation("income.sumByMonth");
+        this.sumByDateRange = registry.operation("income.sumByDateRange");
+        this.sumBySource = registry.operation("income.sumBySource");
+        this.update = registry.operation("income.update");
+        this.delete = registry.operation("income.delete");
+    }
+
+    @Override
+    public void insertIncome(Income income) throws DatabaseOperationException {
+        insert.time(() -> {
+            delegate.insertIncome(income);
+            return null;
+        }, ignored -> 1);
+    }
+
+    @Override
+    public void insertIncomes(List<Income> incomes) throws DatabaseOperationException {
+        insertBatch.time(() -> {
+            delegate.insertIncomes(incomes);
+            return null;
+        }, ignored -> incomes.size());
+    }
+
+    @Override
+    public Income fetchById(int id) throws DatabaseOperationException {
+        return fetchById.time(() -> delegate.fetchById(id), income -> income == null ? 0 : 1);
+    }
+
+    @Override
+    public List<Income> fetchByMonth(int year, int month) throws DatabaseOperationException {
+        return fetchByMonth.time(() -> delegate.fetchByMonth(year, month), List::size);
+    }
+
+    @Override
+    public List<Income> fetchByDateRange(LocalDate from, LocalDate to) throws DatabaseOperationException {
+        return fetchByDateRange.time(() -> delegate.fetchByDateRange(from, to), List::size);
+    }
+
+    @Override
+    public List<Income> fetchPage(LocalDate from, LocalDate to, LocalDate afterDate, int afterId, int limit) throws DatabaseOperationException {
+        return fetchPage.time(() -> delegate.fetchPage(from, to, afterDate, afterId, limit), List::size);
+    }
+
+    /**
+     * The recorded latency includes the time {@code visitor} spends on each row.
+     */
+    @Override
+    public void streamByDateRange(LocalDate from, LocalDate to, Consumer<Income> visitor) throws DatabaseOperationException {
+        long[] rows = new long[1];
+        streamByDateRange.time(() -> {
+            delegate.streamByDateRange(from, to, income -> {
+                rows[0]++;
+                visitor.accept(income);
+            });
+            return null;
+        }, ignored -> rows[0]);
+    }
+
+    @Override
+    public void scanByDateRange(LocalDate from, LocalDate to, ColumnVisitor visitor) throws DatabaseOperationException {
+        long[] rows = new long[1];
+        scanByDateRange.time(() -> {
+            delegate.scanByDateRange(from, to, (id, epochDay, amount, label) -> {
+                rows[0]++;
+                visitor.accept(id, epochDay, amount, label);
+            });
+            return null;
+        }, ignored -> rows[0]);
+    }
+
+    @Override
+    public long sumByMonth(int year, int month) throws DatabaseOperationException {
+        return sumByMonth.time(() -> delegate.sumByMonth(year, month), ignored -> 1);
+    }
+
+    @Override
+    public long sumByDateRange(LocalDate from, LocalDate to) throws DatabaseOperationException {
+        return sumByDateRange.time(() -> delegate.sumByDateRange(from, to), ignored -> 1);
+    }
+
+    @Override
+    public Map<String, Long> sumBySource(LocalDate from, LocalDate to) throws DatabaseOperationException {
+        return sumBySource.time(() -> delegate.sumBySource(from, to), Map::size);
+    }
+
+    @Override
+    public void updateIncome(Income income) throws DatabaseOperationException {
+        update.time(() -> {
+            delegate.updateIncome(income);
+            return null;
+        }, ignored -> 1);
+    }
+
+    @Override
+    public void deleteIncome(int id) throws DatabaseOperationException {
+        delete.time(() -> {
+            delegate.deleteIncome(id);
+            return null;
+        }, ignored -> 1);
+    }
+}
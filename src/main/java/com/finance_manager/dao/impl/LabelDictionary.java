@@ -0,0 +1,179 @@
+package com.finance_manager.dao.impl;
+
+import com.finance_manager.dao.DBConnection;
+import com.finance_manager.exceptions.DatabaseOperationException;
+
+import java.sql.*;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process cache of a lookup table ({@code expense_category} or {@code income_source}) that maps
+ * label names to small integer ids.
+ * <p>
+ * The table is loaded once on first use. Reads are lock-free and return the same {@code String}
+ * instance for an id every time, so mapping a row allocates no label string. Unknown names are
+ * inserted on a connection of their own: the new id is committed and cached even if the caller's
+ * transaction rolls back. Unknown ids (added by another process) trigger a reload.
+ */
+public final class LabelDictionary {
+    private static final LabelDictionary EXPENSE_CATEGORIES = new LabelDictionary("expense_category");
+    private static final LabelDictionary INCOME_SOURCES = new LabelDictionary("income_source");
+
+    private final String table;
+    private final String selectAllSql;
+    private final String selectByNameSql;
+    private final String insertSql;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[0];
+    private volatile boolean loaded;
+
+    private LabelDictionary(String table) {
+        this.table = table;
+        this.selectAllSql = "SELECT id, name FROM " + table;
+        this.selectByNameSql = "SELECT id, name FROM " + table + " WHERE name = ?";
+        this.insertSql = "INSERT INTO " + table + " (name) VALUES (?)";
+    }
+
+    public static LabelDictionary expenseCategories() {
+        return EXPENSE_CATEGORIES;
+    }
+
+    public static LabelDictionary incomeSources() {
+        return INCOME_SOURCES;
+    }
+
+    /**
+     * Id of {@code name}, adding it to the table if it is new.
+     */
+    public int idOf(String name) throws DatabaseOperationException {
+        if (!loaded) {
+            reload();
+        }
+        Integer id = ids.get(name);
+        return id != null ? id : insert(name);
+    }
+
+    /**
+     * Name for {@code id}, or {@code null} if the table has no such id.
+     */
+    public String nameOf(int id) throws DatabaseOperationException {
+        String[] current = names;
+        if (id >= 0 && id < current.length && current[id] != null) {
+            return current[id];
+        }
+        reload();
+        current = names;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * Binds {@code name}'s id to parameter {@code index}, or SQL NULL when {@code name} is null.
+     */
+    public void bind(PreparedStatement ps, int index, String name) throws SQLException, DatabaseOperationException {
+        if (name == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, idOf(name));
+        }
+    }
+
+    /**
+     * Reads an id column and returns its name, or {@code null} for SQL NULL.
+     */
+    public String read(ResultSet rs, int column) throws SQLException, DatabaseOperationException {
+        int id = rs.getInt(column);
+        return rs.wasNull() ? null : nameOf(id);
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * Forgets every cached entry; the table is read again on next use. Needed only if the
+     * lookup table was recreated underneath a running process.
+     */
+    public synchronized void clear() {
+        ids.clear();
+        names = new String[0];
+        loaded = false;
+    }
+
+    private synchronized void reload() throws DatabaseOperationException {
+        try (Connection conn = DBConnection.getInstance().getDetachedConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(selectAllSql)) {
+            String[] loadedNames = names.clone();
+            while (rs.next()) {
+                int id = rs.getInt(1);
+                String name = rs.getString(2);
+                if (ids.putIfAbsent(name, id) == null) {
+                    loadedNames = put(loadedNames, id, name);
+                }
+            }
+            names = loadedNames;
+            loaded = true;
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error loading " + table + ": " + e.getMessage(), e);
+        }
+    }
+
+    private synchronized int insert(String name) throws DatabaseOperationException {
+        Integer existing = ids.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        try (Connection conn = DBConnection.getInstance().getDetachedConnection()) {
+            StoredLabel stored;
+            try (PreparedStatement ps = conn.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
+                ps.setString(1, name);
+                ps.executeUpdate();
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    if (!rs.next()) {
+                        throw new DatabaseOperationException("Inserting label '" + name + "' returned no id.");
+                    }
+                    stored = new StoredLabel(rs.getInt(1), name);
+                }
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // added concurrently by another process, or equal to an existing name under the
+                // column's collation (case or accents); the existing spelling stays the name
+                stored = selectStored(conn, name);
+            }
+            if (stored.id() >= names.length || names[stored.id()] == null) {
+                names = put(names.clone(), stored.id(), stored.name());
+            }
+            ids.putIfAbsent(stored.name(), stored.id());
+            ids.put(name, stored.id());
+            return stored.id();
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error adding " + table + " '" + name + "': " + e.getMessage(), e);
+        }
+    }
+
+    private StoredLabel selectStored(Connection conn, String name) throws SQLException, DatabaseOperationException {
+        try (PreparedStatement ps = conn.prepareStatement(selectByNameSql)) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new DatabaseOperationException("Label '" + name + "' could not be added or found.");
+                }
+                return new StoredLabel(rs.getInt(1), rs.getString(2));
+            }
+        }
+    }
+
+    /**
+     * Stores {@code name} at {@code id} in an array that is not yet published, growing it if needed.
+     */
+    private static String[] put(String[] names, int id, String name) {
+        String[] result = id < names.length ? names : Arrays.copyOf(names, Math.max(id + 1, names.length * 2));
+        result[id] = name;
+        return result;
+    }
+
+    private record StoredLabel(int id, String name) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.finance_manager.dao.impl;
+
+import com.finance_manager.dao.DBConnection;
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.model.LedgerEntry;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Merges the income and expense tables into one date-ordered history.
+ * <p>
+ * Both tables are read through their date index in (date, id) order on server-side cursors of
+ * the same connection, and the two sorted streams are merged row by row. Nothing is sorted or
+ * buffered beyond the cursor fetch size, so the cost is linear in the number of rows.
+ */
+public class LedgerDAO implements com.finance_manager.interfaces.LedgerDAO {
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private static final String INCOME_SQL = "SELECT id, amount_cents, source_id, description, date FROM income WHERE date BETWEEN ? AND ? ORDER BY date, id";
+    private static final String EXPENSE_SQL = "SELECT id, amount_cents, category_id, description, date FROM expense WHERE date BETWEEN ? AND ? ORDER BY date, id";
+
+    @Override
+    public void streamMerged(LocalDate from, LocalDate to, Consumer<LedgerEntry> visitor) throws DatabaseOperationException {
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement incomePs = prepare(conn, INCOME_SQL, from, to);
+             PreparedStatement expensePs = prepare(conn, EXPENSE_SQL, from, to);
+             ResultSet incomes = incomePs.executeQuery();
+             ResultSet expenses = expensePs.executeQuery()) {
+            LabelDictionary sources = LabelDictionary.incomeSources();
+            LabelDictionary categories = LabelDictionary.expenseCategories();
+            LedgerEntry income = next(incomes, LedgerEntry.INCOME, sources);
+            LedgerEntry expense = next(expenses, LedgerEntry.EXPENSE, categories);
+            while (income != null || expense != null) {
+                // On the same date incomes go first, matching how the history has always been listed.
+                if (expense == null || (income != null && !income.date().isAfter(expense.date()))) {
+                    visitor.accept(income);
+                    income = next(incomes, LedgerEntry.INCOME, sources);
+                } else {
+                    visitor.accept(expense);
+                    expense = next(expenses, LedgerEntry.EXPENSE, categories);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error streaming transaction history: " + e.getMessage(), e);
+        }
+    }
+
+    private static PreparedStatement prepare(Connection conn, String sql, LocalDate from, LocalDate to) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setFetchSize(STREAM_FETCH_SIZE);
+        ps.setDate(1, Date.valueOf(from));
+        ps.setDate(2, Date.valueOf(to));
+        return ps;
+    }
+
+    private static LedgerEntry next(ResultSet rs, String type, LabelDictionary labels) throws SQLException, DatabaseOperationException {
+        if (!rs.next()) {
+            return null;
+        }
+        long amount = rs.getLong(2);
+        return new LedgerEntry(rs.getInt(1), rs.getDate(5).toLocalDate(), type, labels.read(rs, 3), rs.getString(4),
+                LedgerEntry.EXPENSE.equals(type) ? -amount : amount);
+    }
+}
@@ -0,0 +1,149 @@
+package com.finance_manager.dao.impl;
+
+import com.finance_manager.dao.DBConnection;
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.model.MonthlySummaryRow;
+
+import java.sql.*;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MonthlySummaryDAO implements com.finance_manager.interfaces.MonthlySummaryDAO {
+
+    private static final String APPLY_DELTA_SQL = "INSERT INTO monthly_summary (year, month, kind, label, total_cents, tx_count) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE total_cents = total_cents + VALUES(total_cents), tx_count = tx_count + VALUES(tx_count)";
+    private static final String FETCH_BY_MONTH_SQL = "SELECT year, month, kind, label, total_cents, tx_count FROM monthly_summary "
+            + "WHERE year = ? AND month = ? AND tx_count > 0 ORDER BY kind, total_cents DESC";
+    // The year range lets the primary key (year, month, ...) narrow the scan; the second range trims the edge years.
+    private static final String MONTHLY_TOTALS_SQL = "SELECT year, month, kind, NULL, SUM(total_cents), SUM(tx_count) FROM monthly_summary "
+            + "WHERE year BETWEEN ? AND ? AND year * 100 + month BETWEEN ? AND ? GROUP BY year, month, kind ORDER BY year, month";
+    private static final String FETCH_ALL_SQL = "SELECT year, month, kind, label, total_cents, tx_count FROM monthly_summary WHERE tx_count > 0";
+    // Grouped on the integer label ids; the lookup tables are only joined to the grouped rows. The outer
+    // GROUP BY folds a NULL label into a real label that happens to have the fallback name.
+    private static final String BASE_TABLES_SQL =
+            "SELECT year, month, kind, label, SUM(total_cents), SUM(tx_count) FROM ("
+                    + "SELECT t.year, t.month, '" + MonthlySummaryRow.INCOME + "' AS kind, "
+                    + "COALESCE(s.name, '" + MonthlySummaryRow.INCOME_FALLBACK_LABEL + "') AS label, t.total_cents, t.tx_count FROM ("
+                    + "SELECT YEAR(date) AS year, MONTH(date) AS month, source_id, SUM(amount_cents) AS total_cents, COUNT(*) AS tx_count "
+                    + "FROM income GROUP BY YEAR(date), MONTH(date), source_id) t "
+                    + "LEFT JOIN income_source s ON s.id = t.source_id "
+                    + "UNION ALL "
+                    + "SELECT t.year, t.month, '" + MonthlySummaryRow.EXPENSE + "', "
+                    + "COALESCE(c.name, '" + MonthlySummaryRow.EXPENSE_FALLBACK_LABEL + "'), t.total_cents, t.tx_count FROM ("
+                    + "SELECT YEAR(date) AS year, MONTH(date) AS month, category_id, SUM(amount_cents) AS total_cents, COUNT(*) AS tx_count "
+                    + "FROM expense GROUP BY YEAR(date), MONTH(date), category_id) t "
+                    + "LEFT JOIN expense_category c ON c.id = t.category_id"
+                    + ") u GROUP BY year, month, kind, label";
+    private static final String CLEAR_SQL = "DELETE FROM monthly_summary";
+    private static final String REBUILD_SQL = "INSERT INTO monthly_summary (year, month, kind, label, total_cents, tx_count) " + BASE_TABLES_SQL;
+    /**
+     * Primary key order. Upserting in one fixed order means two transactions touching the same rows
+     * lock them in the same sequence and cannot deadlock on each other.
+     */
+    private static final Comparator<MonthlySummaryRow> PRIMARY_KEY_ORDER = Comparator.comparingInt(MonthlySummaryRow::year)
+            .thenComparingInt(MonthlySummaryRow::month)
+            .thenComparing(MonthlySummaryRow::kind)
+            .thenComparing(MonthlySummaryRow::label);
+
+    @Override
+    public void applyDeltas(List<MonthlySummaryRow> deltas) throws DatabaseOperationException {
+        if (deltas == null || deltas.isEmpty()) {
+            return;
+        }
+        Map<String, MonthlySummaryRow> merged = new HashMap<>();
+        for (MonthlySummaryRow delta : deltas) {
+            merged.merge(delta.key(), delta, MonthlySummaryRow::plus);
+        }
+        List<MonthlySummaryRow> rows = new ArrayList<>(merged.values());
+        rows.sort(PRIMARY_KEY_ORDER);
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(APPLY_DELTA_SQL)) {
+            for (MonthlySummaryRow row : rows) {
+                ps.setInt(1, row.year());
+                ps.setInt(2, row.month());
+                ps.setString(3, row.kind());
+                ps.setString(4, row.label());
+                ps.setLong(5, row.total());
+                ps.setLong(6, row.count());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error updating monthly summary: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<MonthlySummaryRow> fetchByMonth(int year, int month) throws DatabaseOperationException {
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FETCH_BY_MONTH_SQL)) {
+            ps.setInt(1, year);
+            ps.setInt(2, month);
+            return readRows(ps);
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error fetching monthly summary: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<MonthlySummaryRow> fetchMonthlyTotals(YearMonth from, YearMonth to) throws DatabaseOperationException {
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(MONTHLY_TOTALS_SQL)) {
+            ps.setInt(1, from.getYear());
+            ps.setInt(2, to.getYear());
+            ps.setInt(3, from.getYear() * 100 + from.getMonthValue());
+            ps.setInt(4, to.getYear() * 100 + to.getMonthValue());
+            return readRows(ps);
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error fetching monthly totals: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<MonthlySummaryRow> computeFromBaseTables() throws DatabaseOperationException {
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(BASE_TABLES_SQL)) {
+            return readRows(ps);
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error computing monthly summary: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<MonthlySummaryRow> fetchAll() throws DatabaseOperationException {
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FETCH_ALL_SQL)) {
+            return readRows(ps);
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error fetching monthly summary: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void rebuild() throws DatabaseOperationException {
+        DBConnection.getInstance().inTransaction(() -> {
+            try (Connection conn = DBConnection.getInstance().getConnection();
+                 Statement st = conn.createStatement()) {
+                st.executeUpdate(CLEAR_SQL);
+                st.executeUpdate(REBUILD_SQL);
+            } catch (SQLException e) {
+                throw new DatabaseOperationException("Error rebuilding monthly summary: " + e.getMessage(), e);
+            }
+            return null;
+        });
+    }
+
+    private static List<MonthlySummaryRow> readRows(PreparedStatement ps) throws SQLException {
+        List<MonthlySummaryRow> rows = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                rows.add(new MonthlySummaryRow(rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getString(4), rs.getLong(5), rs.getLong(6)));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,580 @@
+package com.finance_manager.dao.impl;
+
+import com.finance_manager.interfaces.ColumnVisitor;
+import com.finance_manager.model.Money;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Append-only log of fixed-width income or expense records in a memory-mapped file, with an id
+ * index and a (date, id) index held in memory. Backs {@link FileExpenseDAO} and {@link FileIncomeDAO}.
+ * <p>
+ * An update appends a new version of the record and a delete appends a tombstone. Superseded
+ * records stay in the file until {@link #compact()} rewrites it with the live records only, which
+ * also happens on its own once dead records outnumber live ones. The record count in the header
+ * is written after the records it covers, so a write cut short by a crash is ignored on the next
+ * open and a batch is all or nothing. Writes reach the OS page cache at once and survive a JVM
+ * crash; they are forced to disk on close and compaction, or after every write when
+ * {@code syncEveryWrite} is set.
+ * <p>
+ * Labels are dictionary-encoded; the names live in a small side file that is only appended to.
+ * Descriptions are stored as up to {@value #DESCRIPTION_BYTES} bytes of UTF-8 and cut at a
+ * character boundary beyond that.
+ */
+final class RecordLog implements Closeable {
+
+    /** Builds a model object from one record. */
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(int id, LocalDate date, long amount, String label, String description);
+    }
+
+    /** The fields of a record to write; {@code id} is ignored on insert. */
+    record Entry(int id, LocalDate date, long amount, String label, String description) {
+    }
+
+    private static final int MAGIC = 0x464D4C47;
+    private static final int VERSION = 1;
+    // Header: magic, version, record count, next id.
+    private static final int HEADER_SIZE = 16;
+    private static final int COUNT_OFFSET = 8;
+    private static final int NEXT_ID_OFFSET = 12;
+
+    // Record: id, epoch day, amount, label id, flags, description length, description bytes.
+    private static final int ID = 0;
+    private static final int DAY = 4;
+    private static final int AMOUNT = 8;
+    private static final int LABEL = 16;
+    private static final int FLAGS = 20;
+    private static final int DESCRIPTION_LENGTH = 22;
+    private static final int DESCRIPTION = 24;
+    private static final int DESCRIPTION_BYTES = 200;
+    private static final int RECORD_SIZE = DESCRIPTION + DESCRIPTION_BYTES;
+
+    private static final byte LIVE = 1;
+    private static final byte TOMBSTONE = 2;
+    private static final int NO_LABEL = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+    private static final int COMPACT_MIN_DEAD = 4096;
+    private static final int VISIT_CHUNK = 1024;
+
+    private final Path file;
+    private final Path labelFile;
+    private final boolean syncEveryWrite;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, Integer> slotById = new HashMap<>();
+    private final NavigableMap<Long, Integer> byDate = new TreeMap<>();
+    private final List<String> labels = new ArrayList<>();
+    private final Map<String, Integer> labelIds = new HashMap<>();
+
+    private FileChannel channel;
+    private FileChannel labelChannel;
+    private MappedByteBuffer map;
+    private int capacity;
+    private int count;
+    private int nextId;
+    private int dead;
+
+    /**
+     * Opens or creates {@code name.log} and {@code name.labels} in {@code directory} and indexes
+     * every record in the log.
+     */
+    RecordLog(Path directory, String name, boolean syncEveryWrite) throws IOException {
+        Files.createDirectories(directory);
+        this.file = directory.resolve(name + ".log");
+        this.labelFile = directory.resolve(name + ".labels");
+        this.syncEveryWrite = syncEveryWrite;
+        loadLabels();
+        open();
+        if (needsCompaction()) {
+            compactLocked();
+        }
+    }
+
+    int insert(Entry entry) throws IOException {
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(1);
+            int id = nextId++;
+            write(count, id, entry, LIVE);
+            commit(1);
+            return id;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends every entry and makes them visible together. Returns the new ids in entry order.
+     */
+    int[] insertAll(List<Entry> entries) throws IOException {
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(entries.size());
+            int[] ids = new int[entries.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = nextId++;
+                write(count + i, ids[i], entries.get(i), LIVE);
+            }
+            commit(ids.length);
+            return ids;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends a new version of the record with {@code entry.id()}. Returns {@code false} if there
+     * is no live record with that id.
+     */
+    boolean update(Entry entry) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (!slotById.containsKey(entry.id())) {
+                return false;
+            }
+            ensureCapacity(1);
+            write(count, entry.id(), entry, LIVE);
+            commit(1);
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends a tombstone for {@code id}. Returns {@code false} if there is no live record with that id.
+     */
+    boolean delete(int id) throws IOException {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(id);
+            if (slot == null) {
+                return false;
+            }
+            ensureCapacity(1);
+            int position = position(count);
+            map.putInt(position + ID, id);
+            map.putInt(position + DAY, map.getInt(position(slot) + DAY));
+            map.put(position + FLAGS, TOMBSTONE);
+            commit(1);
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    <T> T get(int id, RowMapper<T> mapper) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotById.get(id);
+            return slot == null ? null : read(slot, mapper);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every record in the inclusive range of epoch days, in (date, id) order. Records are read in
+     * chunks of {@value #VISIT_CHUNK} under the read lock and visited after it is released, so a
+     * slow visitor (e.g. a streamed HTTP response) does not hold up writes or compaction. As with
+     * keyset paging, a record written between chunks may or may not be seen.
+     */
+    <T> void forEach(long fromDay, long toDay, RowMapper<T> mapper, Consumer<T> visitor) {
+        if (fromDay > toDay) {
+            return;
+        }
+        long low = key(fromDay, 0);
+        long high = key(toDay, -1);
+        List<T> chunk = new ArrayList<>(VISIT_CHUNK);
+        while (true) {
+            lock.readLock().lock();
+            try {
+                for (Map.Entry<Long, Integer> record : byDate.subMap(low, true, high, true).entrySet()) {
+                    chunk.add(read(record.getValue(), mapper));
+                    low = record.getKey() + 1;
+                    if (chunk.size() == VISIT_CHUNK) {
+                        break;
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            for (T row : chunk) {
+                visitor.accept(row);
+            }
+            if (chunk.size() < VISIT_CHUNK || low > high) {
+                return;
+            }
+            chunk.clear();
+        }
+    }
+
+    <T> List<T> list(long fromDay, long toDay, RowMapper<T> mapper) {
+        lock.readLock().lock();
+        try {
+            List<T> rows = new ArrayList<>();
+            for (int slot : range(fromDay, toDay).values()) {
+                rows.add(read(slot, mapper));
+            }
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} records in the range after ({@code afterDay}, {@code afterId}) in
+     * (date, id) order, or from the start of the range if {@code afterDay} is {@code null}.
+     */
+    <T> List<T> page(long fromDay, long toDay, Long afterDay, int afterId, int limit, RowMapper<T> mapper) {
+        List<T> rows = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+        long low = key(fromDay, 0);
+        if (afterDay != null) {
+            // One past (afterDay, afterId); carries into the next day when afterId is the largest id.
+            low = Math.max(low, key(afterDay, afterId) + 1);
+        }
+        long high = key(toDay, -1);
+        lock.readLock().lock();
+        try {
+            if (low > high) {
+                return rows;
+            }
+            for (int slot : byDate.subMap(low, true, high, true).values()) {
+                if (rows.size() >= limit) {
+                    break;
+                }
+                rows.add(read(slot, mapper));
+            }
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void scan(long fromDay, long toDay, ColumnVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            for (int slot : range(fromDay, toDay).values()) {
+                int position = position(slot);
+                visitor.accept(map.getInt(position + ID), map.getInt(position + DAY), map.getLong(position + AMOUNT),
+                        label(map.getInt(position + LABEL)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long sum(long fromDay, long toDay) {
+        lock.readLock().lock();
+        try {
+            long total = 0;
+            for (int slot : range(fromDay, toDay).values()) {
+                total = Money.add(total, map.getLong(position(slot) + AMOUNT));
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Totals per label over the range, largest first, with unlabeled records under {@code fallback}.
+     */
+    Map<String, Long> sumByLabel(long fromDay, long toDay, String fallback) {
+        long[] totals;
+        String[] names;
+        lock.readLock().lock();
+        try {
+            // labelId() appends under the write lock, so the names are copied while it is held.
+            names = labels.toArray(new String[0]);
+            // Index names.length collects the records without a label.
+            totals = new long[names.length + 1];
+            for (int slot : range(fromDay, toDay).values()) {
+                int position = position(slot);
+                int label = map.getInt(position + LABEL);
+                int index = label == NO_LABEL ? totals.length - 1 : label;
+                totals[index] = Money.add(totals[index], map.getLong(position + AMOUNT));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Map<String, Long> merged = new HashMap<>();
+        for (int i = 0; i < totals.length; i++) {
+            if (totals[i] != 0) {
+                merged.merge(i == names.length ? fallback : names[i], totals[i], Money::add);
+            }
+        }
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        merged.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
+
+    /**
+     * Rewrites the log with only the live records, in (date, id) order, and swaps it in with an
+     * atomic rename.
+     */
+    void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            compactLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel.isOpen()) {
+                map.force();
+                channel.close();
+                labelChannel.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size == 0) {
+            remap(INITIAL_CAPACITY);
+            map.putInt(0, MAGIC);
+            map.putInt(4, VERSION);
+            map.putInt(COUNT_OFFSET, 0);
+            map.putInt(NEXT_ID_OFFSET, 1);
+        } else {
+            long records = Math.max(0, (size - HEADER_SIZE) / RECORD_SIZE);
+            remap((int) Math.min(Math.max(records, INITIAL_CAPACITY), MAX_CAPACITY));
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                channel.close();
+                throw new IOException("Not a version " + VERSION + " record log: " + file);
+            }
+        }
+        count = map.getInt(COUNT_OFFSET);
+        nextId = map.getInt(NEXT_ID_OFFSET);
+        if (count < 0 || count > capacity) {
+            channel.close();
+            throw new IOException("Corrupt record count " + count + " in " + file);
+        }
+        slotById.clear();
+        byDate.clear();
+        dead = 0;
+        for (int slot = 0; slot < count; slot++) {
+            index(slot);
+        }
+    }
+
+    private void index(int slot) {
+        int position = position(slot);
+        int id = map.getInt(position + ID);
+        Integer previous = slotById.remove(id);
+        if (previous != null) {
+            byDate.remove(key(map.getInt(position(previous) + DAY), id));
+            dead++;
+        }
+        if (map.get(position + FLAGS) == TOMBSTONE) {
+            dead++;
+        } else {
+            slotById.put(id, slot);
+            byDate.put(key(map.getInt(position + DAY), id), slot);
+        }
+        nextId = Math.max(nextId, id + 1);
+    }
+
+    private void write(int slot, int id, Entry entry, byte flags) throws IOException {
+        int position = position(slot);
+        map.putInt(position + ID, id);
+        map.putInt(position + DAY, Math.toIntExact(entry.date().toEpochDay()));
+        map.putLong(position + AMOUNT, entry.amount());
+        map.putInt(position + LABEL, labelId(entry.label()));
+        map.put(position + FLAGS, flags);
+        if (entry.description() == null) {
+            map.putShort(position + DESCRIPTION_LENGTH, (short) -1);
+        } else {
+            ByteBuffer bytes = map.slice(position + DESCRIPTION, DESCRIPTION_BYTES);
+            StandardCharsets.UTF_8.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    .encode(CharBuffer.wrap(entry.description()), bytes, true);
+            map.putShort(position + DESCRIPTION_LENGTH, (short) bytes.position());
+        }
+    }
+
+    /**
+     * Publishes the {@code records} just written after the current end of the log.
+     */
+    private void commit(int records) {
+        map.putInt(NEXT_ID_OFFSET, nextId);
+        map.putInt(COUNT_OFFSET, count + records);
+        if (syncEveryWrite) {
+            map.force();
+        }
+        for (int i = 0; i < records; i++) {
+            index(count++);
+        }
+    }
+
+    private <T> T read(int slot, RowMapper<T> mapper) {
+        int position = position(slot);
+        short length = map.getShort(position + DESCRIPTION_LENGTH);
+        String description = null;
+        if (length >= 0) {
+            byte[] bytes = new byte[length];
+            map.get(position + DESCRIPTION, bytes);
+            description = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return mapper.map(map.getInt(position + ID), LocalDate.ofEpochDay(map.getInt(position + DAY)),
+                map.getLong(position + AMOUNT), label(map.getInt(position + LABEL)), description);
+    }
+
+    private NavigableMap<Long, Integer> range(long fromDay, long toDay) {
+        return fromDay > toDay ? new TreeMap<>() : byDate.subMap(key(fromDay, 0), true, key(toDay, -1), true);
+    }
+
+    private void ensureCapacity(int records) throws IOException {
+        long needed = (long) count + records;
+        if (needed <= capacity) {
+            return;
+        }
+        if (needed > MAX_CAPACITY) {
+            throw new IOException("Record log is full: " + file + " (compact it or use MySQL)");
+        }
+        remap((int) Math.min(Math.max(needed, (long) capacity * 2), MAX_CAPACITY));
+    }
+
+    private void remap(int records) throws IOException {
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) records * RECORD_SIZE);
+        capacity = records;
+    }
+
+    private boolean needsCompaction() {
+        return dead >= COMPACT_MIN_DEAD && dead > slotById.size();
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (needsCompaction()) {
+            compactLocked();
+        }
+    }
+
+    private void compactLocked() throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        int live = slotById.size();
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer target = out.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) Math.max(live, INITIAL_CAPACITY) * RECORD_SIZE);
+            int slot = 0;
+            for (int source : byDate.values()) {
+                target.put(position(slot++), map, position(source), RECORD_SIZE);
+            }
+            target.putInt(0, MAGIC);
+            target.putInt(4, VERSION);
+            target.putInt(COUNT_OFFSET, live);
+            target.putInt(NEXT_ID_OFFSET, nextId);
+            target.force();
+        }
+        map.force();
+        channel.close();
+        try {
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            // Reopens whichever file is in place, so a failed rename leaves the old log usable.
+            open();
+        }
+    }
+
+    private int labelId(String label) throws IOException {
+        if (label == null) {
+            return NO_LABEL;
+        }
+        Integer existing = labelIds.get(label);
+        if (existing != null) {
+            return existing;
+        }
+        byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer entry = ByteBuffer.allocate(2 + bytes.length);
+        entry.putShort((short) bytes.length).put(bytes).flip();
+        while (entry.hasRemaining()) {
+            labelChannel.write(entry);
+        }
+        if (syncEveryWrite) {
+            labelChannel.force(false);
+        }
+        int id = labels.size();
+        labels.add(label);
+        labelIds.put(label, id);
+        return id;
+    }
+
+    private String label(int id) {
+        return id == NO_LABEL ? null : labels.get(id);
+    }
+
+    /**
+     * Reads the label file and cuts off an entry left half-written by a crash, so later appends line up.
+     */
+    private void loadLabels() throws IOException {
+        labelChannel = FileChannel.open(labelFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer contents = ByteBuffer.allocate(Math.toIntExact(labelChannel.size()));
+        while (contents.hasRemaining() && labelChannel.read(contents) >= 0) {
+            // keep reading
+        }
+        contents.flip();
+        int valid = 0;
+        while (contents.remaining() >= 2) {
+            int length = contents.getShort() & 0xFFFF;
+            if (contents.remaining() < length) {
+                break;
+            }
+            byte[] bytes = new byte[length];
+            contents.get(bytes);
+            String label = new String(bytes, StandardCharsets.UTF_8);
+            labelIds.put(label, labels.size());
+            labels.add(label);
+            valid = contents.position();
+        }
+        labelChannel.truncate(valid);
+        labelChannel.position(valid);
+    }
+
+    private static int position(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    private static long key(long epochDay, int id) {
+        return (epochDay << 32) | (id & 0xFFFFFFFFL);
+    }
+}
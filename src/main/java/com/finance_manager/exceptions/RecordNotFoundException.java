@@ -0,0 +1,12 @@
+package com.finance_manager.exceptions;
+
+/**
+ * Thrown when an update or delete names an id that has no row.
+ */
+public class RecordNotFoundException extends DatabaseOperationException {
+    private static final long serialVersionUID = 1L;
+
+    public RecordNotFoundException(String message) {
+        super(message);
+    }
+}
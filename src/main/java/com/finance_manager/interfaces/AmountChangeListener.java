@@ -0,0 +1,15 @@
+package com.finance_manager.interfaces;
+
+import java.time.LocalDate;
+
+/**
+ * Notified, after a write through the income or expense service has committed, of how much the
+ * total on one transaction date changed.
+ */
+@FunctionalInterface
+public interface AmountChangeListener {
+    /**
+     * @param delta signed change in cents; an update reports the old row and the new row separately
+     */
+    void onAmountChanged(LocalDate date, long delta);
+}
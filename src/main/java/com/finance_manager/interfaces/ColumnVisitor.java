@@ -0,0 +1,14 @@
+package com.finance_manager.interfaces;
+
+/**
+ * Receives one row as primitive columns, for readers that must not create a model object per row.
+ */
+@FunctionalInterface
+public interface ColumnVisitor {
+    /**
+     * @param epochDay days since 1970-01-01, as in {@link java.time.LocalDate#toEpochDay()}
+     * @param amount   amount in cents
+     * @param label    the income source or expense category
+     */
+    void accept(int id, int epochDay, long amount, String label);
+}
@@ -0,0 +1,14 @@
+package com.finance_manager.interfaces;
+
+import java.time.LocalDate;
+
+/**
+ * Notified after a write through the income or expense service has committed.
+ */
+@FunctionalInterface
+public interface DataChangeListener {
+    /**
+     * @param date a transaction date whose totals may have changed
+     */
+    void onDataChanged(LocalDate date);
+}
@@ -5,11 +5,48 @@ import com.finance_manager.model.Expense;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ExpenseDAO {
     void insertExpense(Expense expense) throws DatabaseOperationException;
+    void insertExpenses(List<Expense> expenses) throws DatabaseOperationException;
+    /**
+     * Returns the expense with the given id, locking the row when called inside a transaction,
+     * or {@code null} if it does not exist.
+     */
+    Expense fetchById(int id) throws DatabaseOperationException;
     List<Expense> fetchByMonth(int year, int month) throws DatabaseOperationException;
     List<Expense> fetchByDateRange(LocalDate from, LocalDate to) throws DatabaseOperationException;
+
+    /**
+     * Up to {@code limit} expenses in the inclusive range that come after ({@code afterDate},
+     * {@code afterId}) in (date, id) order. Pass {@code null} as {@code afterDate} for the first
+     * page, then the date and id of the last row received. Each page is one range scan on the date
+     * index, so its cost does not grow with how deep into the range it starts.
+     */
+    List<Expense> fetchPage(LocalDate from, LocalDate to, LocalDate afterDate, int afterId, int limit) throws DatabaseOperationException;
+
+    /**
+     * Streams every expense in the inclusive range to {@code visitor}, ordered by date then id,
+     * without materializing the result. Resources are closed before this method returns.
+     */
+    void streamByDateRange(LocalDate from, LocalDate to, Consumer<Expense> visitor) throws DatabaseOperationException;
+    /**
+     * Like {@link #streamByDateRange} but hands each row over as primitive columns, unordered,
+     * without the description. Used to build columnar analytics structures.
+     */
+    void scanByDateRange(LocalDate from, LocalDate to, ColumnVisitor visitor) throws DatabaseOperationException;
+    /**
+     * Totals are in cents.
+     */
+    long sumByMonth(int year, int month) throws DatabaseOperationException;
+    long sumByDateRange(LocalDate from, LocalDate to) throws DatabaseOperationException;
+
+    /**
+     * Totals per category over the inclusive range, largest first.
+     */
+    Map<String, Long> sumByCategory(LocalDate from, LocalDate to) throws DatabaseOperationException;
     void updateExpense(Expense expense) throws DatabaseOperationException;
     void deleteExpense(int id) throws DatabaseOperationException;
 }
@@ -5,11 +5,48 @@ import com.finance_manager.model.Income;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface IncomeDAO {
     void insertIncome(Income income) throws DatabaseOperationException;
+    void insertIncomes(List<Income> incomes) throws DatabaseOperationException;
+    /**
+     * Returns the income with the given id, locking the row when called inside a transaction,
+     * or {@code null} if it does not exist.
+     */
+    Income fetchById(int id) throws DatabaseOperationException;
     List<Income> fetchByMonth(int year, int month) throws DatabaseOperationException;
     List<Income> fetchByDateRange(LocalDate from, LocalDate to) throws DatabaseOperationException;
+
+    /**
+     * Up to {@code limit} incomes in the inclusive range that come after ({@code afterDate},
+     * {@code afterId}) in (date, id) order. Pass {@code null} as {@code afterDate} for the first
+     * page, then the date and id of the last row received. Each page is one range scan on the date
+     * index, so its cost does not grow with how deep into the range it starts.
+     */
+    List<Income> fetchPage(LocalDate from, LocalDate to, LocalDate afterDate, int afterId, int limit) throws DatabaseOperationException;
+
+    /**
+     * Streams every income in the inclusive range to {@code visitor}, ordered by date then id,
+     * without materializing the result. Resources are closed before this method returns.
+     */
+    void streamByDateRange(LocalDate from, LocalDate to, Consumer<Income> visitor) throws DatabaseOperationException;
+    /**
+     * Like {@link #streamByDateRange} but hands each row over as primitive columns, unordered,
+     * without the description. Used to build columnar analytics structures.
+     */
+    void scanByDateRange(LocalDate from, LocalDate to, ColumnVisitor visitor) throws DatabaseOperationException;
+    /**
+     * Totals are in cents.
+     */
+    long sumByMonth(int year, int month) throws DatabaseOperationException;
+    long sumByDateRange(LocalDate from, LocalDate to) throws DatabaseOperationException;
+
+    /**
+     * Totals per source over the inclusive range, largest first.
+     */
+    Map<String, Long> sumBySource(LocalDate from, LocalDate to) throws DatabaseOperationException;
     void updateIncome(Income income) throws DatabaseOperationException;
     void deleteIncome(int id) throws DatabaseOperationException;
 }
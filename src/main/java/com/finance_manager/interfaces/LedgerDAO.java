@@ -0,0 +1,15 @@
+package com.finance_manager.interfaces;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.model.LedgerEntry;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+public interface LedgerDAO {
+    /**
+     * Streams incomes and expenses in the inclusive range as one sequence ordered by date, then
+     * incomes before expenses, then id.
+     */
+    void streamMerged(LocalDate from, LocalDate to, Consumer<LedgerEntry> visitor) throws DatabaseOperationException;
+}
@@ -0,0 +1,28 @@
+package com.finance_manager.interfaces;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.model.MonthlySummaryRow;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public interface MonthlySummaryDAO {
+    /**
+     * Adds signed deltas to the rollup. Deltas for the same month, kind and label are merged first.
+     */
+    void applyDeltas(List<MonthlySummaryRow> deltas) throws DatabaseOperationException;
+    List<MonthlySummaryRow> fetchByMonth(int year, int month) throws DatabaseOperationException;
+
+    /**
+     * Totals per month and kind, summed over all labels, for the inclusive span of months. Rows
+     * have a {@code null} label and come in (year, month) order; months without rows are absent.
+     */
+    List<MonthlySummaryRow> fetchMonthlyTotals(YearMonth from, YearMonth to) throws DatabaseOperationException;
+
+    /**
+     * Recomputes every rollup row from the base tables.
+     */
+    List<MonthlySummaryRow> computeFromBaseTables() throws DatabaseOperationException;
+    List<MonthlySummaryRow> fetchAll() throws DatabaseOperationException;
+    void rebuild() throws DatabaseOperationException;
+}
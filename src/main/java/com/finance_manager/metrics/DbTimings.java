@@ -0,0 +1,29 @@
+package com.finance_manager.metrics;
+
+/**
+ * Per-thread running totals of time spent waiting for a pooled connection and executing
+ * statements. The connection pool adds to them; {@link OperationMetrics#time} reads them before
+ * and after a DAO call to split its latency into acquisition, execution and the remainder
+ * (mostly row mapping and result-set fetches).
+ */
+public final class DbTimings {
+    static final int ACQUIRE = 0;
+    static final int EXECUTE = 1;
+
+    private static final ThreadLocal<long[]> TOTALS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private DbTimings() {
+    }
+
+    public static void addAcquire(long nanos) {
+        TOTALS.get()[ACQUIRE] += nanos;
+    }
+
+    public static void addExecute(long nanos) {
+        TOTALS.get()[EXECUTE] += nanos;
+    }
+
+    static long[] current() {
+        return TOTALS.get();
+    }
+}
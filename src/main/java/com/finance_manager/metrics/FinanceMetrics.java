@@ -0,0 +1,92 @@
+package com.finance_manager.metrics;
+
+import com.finance_manager.dao.DBConnection;
+import com.finance_manager.dao.DaoFactory;
+import com.finance_manager.exceptions.DatabaseOperationException;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+public class FinanceMetrics implements FinanceMetricsMBean {
+    public static final String OBJECT_NAME = "com.finance_manager:type=Metrics";
+
+    private final MetricsRegistry registry;
+
+    public FinanceMetrics(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Registers the process-wide registry with the platform MBean server. Returns {@code false}
+     * if JMX is unavailable; calling it again is harmless.
+     */
+    public static boolean register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(new FinanceMetrics(MetricsRegistry.getInstance()), new ObjectName(OBJECT_NAME));
+            return true;
+        } catch (InstanceAlreadyExistsException e) {
+            return true;
+        } catch (JMException | SecurityException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public String[] getOperationNames() {
+        return registry.snapshot().stream().map(OperationSnapshot::name).toArray(String[]::new);
+    }
+
+    /**
+     * {@code n/a} on the file backend, which has no connection pool; asking for the stats there
+     * would create a MySQL pool.
+     */
+    @Override
+    public String getPoolStats() {
+        try {
+            if (DaoFactory.getInstance().getStorage() != DaoFactory.Storage.MYSQL) {
+                return "n/a";
+            }
+            return DBConnection.getInstance().getPoolStats().toString();
+        } catch (DatabaseOperationException e) {
+            return "unavailable: " + e.getMessage();
+        }
+    }
+
+    @Override
+    public long getCalls(String operation) {
+        return registry.operation(operation).snapshot().calls();
+    }
+
+    @Override
+    public long getErrors(String operation) {
+        return registry.operation(operation).snapshot().errors();
+    }
+
+    @Override
+    public long getRows(String operation) {
+        return registry.operation(operation).snapshot().rows();
+    }
+
+    @Override
+    public double getMeanMillis(String operation) {
+        return registry.operation(operation).snapshot().total().mean();
+    }
+
+    @Override
+    public double getPercentileMillis(String operation, double percentile) {
+        return registry.operation(operation).percentileNanos(percentile) / 1_000_000.0;
+    }
+
+    @Override
+    public String dump() {
+        return registry.dump();
+    }
+
+    @Override
+    public void reset() {
+        registry.reset();
+    }
+}
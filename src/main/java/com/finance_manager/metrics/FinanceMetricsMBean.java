@@ -0,0 +1,25 @@
+package com.finance_manager.metrics;
+
+/**
+ * JMX view of {@link MetricsRegistry}, registered as {@value FinanceMetrics#OBJECT_NAME}.
+ * Latencies are in milliseconds.
+ */
+public interface FinanceMetricsMBean {
+    String[] getOperationNames();
+
+    String getPoolStats();
+
+    long getCalls(String operation);
+
+    long getErrors(String operation);
+
+    long getRows(String operation);
+
+    double getMeanMillis(String operation);
+
+    double getPercentileMillis(String operation, double percentile);
+
+    String dump();
+
+    void reset();
+}
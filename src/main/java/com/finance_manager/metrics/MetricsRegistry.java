@@ -0,0 +1,72 @@
+package com.finance_manager.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process-wide set of {@link OperationMetrics}, keyed by operation name such as
+ * {@code expense.fetchByMonth}. Lookups after the first one for a name do not lock.
+ */
+public final class MetricsRegistry {
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final ConcurrentMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+    }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public OperationMetrics operation(String name) {
+        OperationMetrics metrics = operations.get(name);
+        return metrics != null ? metrics : operations.computeIfAbsent(name, OperationMetrics::new);
+    }
+
+    /**
+     * Snapshots of every operation that was called at least once, sorted by name.
+     */
+    public List<OperationSnapshot> snapshot() {
+        List<OperationSnapshot> snapshots = new ArrayList<>();
+        for (OperationMetrics metrics : operations.values()) {
+            OperationSnapshot snapshot = metrics.snapshot();
+            if (snapshot.calls() > 0) {
+                snapshots.add(snapshot);
+            }
+        }
+        snapshots.sort((a, b) -> a.name().compareTo(b.name()));
+        return snapshots;
+    }
+
+    public void reset() {
+        operations.values().forEach(OperationMetrics::reset);
+    }
+
+    /**
+     * Human-readable table of {@link #snapshot()}. Phase lines are only shown for DAO operations.
+     */
+    public String dump() {
+        StringBuilder sb = new StringBuilder(1024);
+        List<OperationSnapshot> snapshots = snapshot();
+        if (snapshots.isEmpty()) {
+            return "No operations recorded yet.\n";
+        }
+        for (OperationSnapshot s : snapshots) {
+            sb.append(s.name())
+                    .append("  calls=").append(s.calls())
+                    .append(" errors=").append(s.errors())
+                    .append(" rows=").append(s.rows())
+                    .append('\n');
+            sb.append("    total    ").append(s.total()).append('\n');
+            if (s.acquire() != null) {
+                sb.append("    acquire  ").append(s.acquire()).append('\n');
+                sb.append("    execute  ").append(s.execute()).append('\n');
+                sb.append("    mapping  ").append(s.mapping()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+}
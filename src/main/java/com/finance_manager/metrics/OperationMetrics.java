@@ -0,0 +1,98 @@
+package com.finance_manager.metrics;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Call, error and row counters plus latency histograms for one named operation.
+ */
+public final class OperationMetrics {
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final LatencyHistogram acquire = new LatencyHistogram();
+    private final LatencyHistogram execute = new LatencyHistogram();
+    private final LatencyHistogram mapping = new LatencyHistogram();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long nanos, long rowCount, boolean failed) {
+        calls.increment();
+        if (failed) {
+            errors.increment();
+        }
+        rows.add(rowCount);
+        total.record(nanos);
+    }
+
+    /**
+     * Records a call whose latency is split into connection acquisition, statement execution
+     * and the rest of the time spent in the call.
+     */
+    public void record(long nanos, long acquireNanos, long executeNanos, long rowCount, boolean failed) {
+        record(nanos, rowCount, failed);
+        acquire.record(acquireNanos);
+        execute.record(executeNanos);
+        mapping.record(nanos - acquireNanos - executeNanos);
+    }
+
+    /**
+     * Runs {@code call} on the calling thread and records it with its phase split.
+     * {@code rowCounter} turns the result into the number of rows it represents.
+     */
+    public <T> T time(Timed<T> call, ToLongFunction<? super T> rowCounter) throws DatabaseOperationException {
+        long[] timings = DbTimings.current();
+        long acquireBefore = timings[DbTimings.ACQUIRE];
+        long executeBefore = timings[DbTimings.EXECUTE];
+        long start = System.nanoTime();
+        boolean failed = true;
+        long rowCount = 0;
+        try {
+            T result = call.call();
+            rowCount = rowCounter.applyAsLong(result);
+            failed = false;
+            return result;
+        } finally {
+            record(System.nanoTime() - start, timings[DbTimings.ACQUIRE] - acquireBefore,
+                    timings[DbTimings.EXECUTE] - executeBefore, rowCount, failed);
+        }
+    }
+
+    public long percentileNanos(double percentile) {
+        return total.percentile(percentile);
+    }
+
+    public OperationSnapshot snapshot() {
+        boolean phased = acquire.count() > 0;
+        return new OperationSnapshot(name, calls.sum(), errors.sum(), rows.sum(),
+                OperationSnapshot.Latency.of(total),
+                phased ? OperationSnapshot.Latency.of(acquire) : null,
+                phased ? OperationSnapshot.Latency.of(execute) : null,
+                phased ? OperationSnapshot.Latency.of(mapping) : null);
+    }
+
+    void reset() {
+        calls.reset();
+        errors.reset();
+        rows.reset();
+        total.reset();
+        acquire.reset();
+        execute.reset();
+        mapping.reset();
+    }
+
+    @FunctionalInterface
+    public interface Timed<T> {
+        T call() throws DatabaseOperationException;
+    }
+}
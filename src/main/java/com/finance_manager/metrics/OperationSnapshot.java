@@ -0,0 +1,34 @@
+package com.finance_manager.metrics;
+
+/**
+ * Point-in-time view of one operation's counters. {@code acquire}, {@code execute} and
+ * {@code mapping} are {@code null} for operations that are not split into phases.
+ */
+public record OperationSnapshot(String name,
+                                long calls,
+                                long errors,
+                                long rows,
+                                Latency total,
+                                Latency acquire,
+                                Latency execute,
+                                Latency mapping) {
+
+    /**
+     * Latency summary in milliseconds.
+     */
+    public record Latency(double mean, double p50, double p90, double p99, double max) {
+
+        static Latency of(LatencyHistogram histogram) {
+            return new Latency(histogram.mean() / 1_000_000.0,
+                    histogram.percentile(50) / 1_000_000.0,
+                    histogram.percentile(90) / 1_000_000.0,
+                    histogram.percentile(99) / 1_000_000.0,
+                    histogram.max() / 1_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("mean=%.3fms p50=%.3fms p90=%.3fms p99=%.3fms max=%.3fms", mean, p50, p90, p99, max);
+        }
+    }
+}
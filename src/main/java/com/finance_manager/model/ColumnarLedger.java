@@ -0,0 +1,237 @@
+package com.finance_manager.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-only, column-oriented copy of a period's incomes and expenses for analytics.
+ * <p>
+ * Each transaction is one index into parallel primitive arrays (id, epoch day, amount in cents,
+ * kind, label id); income sources and expense categories are dictionary-encoded into one shared
+ * label table. Filters, totals and group-bys are plain loops over the arrays: no boxing and no
+ * {@link Income}/{@link Expense} object per row. Build one with {@link Builder}.
+ */
+public final class ColumnarLedger {
+    public static final byte INCOME = 0;
+    public static final byte EXPENSE = 1;
+
+    private final int size;
+    private final int[] ids;
+    private final int[] epochDays;
+    private final long[] amounts;
+    private final byte[] kinds;
+    private final int[] labelIds;
+    private final String[] labels;
+
+    private ColumnarLedger(int size, int[] ids, int[] epochDays, long[] amounts, byte[] kinds, int[] labelIds, String[] labels) {
+        this.size = size;
+        this.ids = ids;
+        this.epochDays = epochDays;
+        this.amounts = amounts;
+        this.kinds = kinds;
+        this.labelIds = labelIds;
+        this.labels = labels;
+    }
+
+    /**
+     * Wraps ready-made columns without copying them; the caller must not modify them afterwards.
+     * Every label id must index {@code labels}.
+     */
+    public static ColumnarLedger of(int[] ids, int[] epochDays, long[] amounts, byte[] kinds, int[] labelIds, String[] labels) {
+        int size = ids.length;
+        if (epochDays.length != size || amounts.length != size || kinds.length != size || labelIds.length != size) {
+            throw new IllegalArgumentException("Columns differ in length");
+        }
+        return new ColumnarLedger(size, ids, epochDays, amounts, kinds, labelIds, labels);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int labelCount() {
+        return labels.length;
+    }
+
+    public String label(int labelId) {
+        return labels[labelId];
+    }
+
+    public int id(int row) {
+        return ids[row];
+    }
+
+    public int epochDay(int row) {
+        return epochDays[row];
+    }
+
+    public long amount(int row) {
+        return amounts[row];
+    }
+
+    public byte kind(int row) {
+        return kinds[row];
+    }
+
+    public int labelId(int row) {
+        return labelIds[row];
+    }
+
+    /**
+     * Total of one kind over the inclusive range of epoch days.
+     */
+    public long sum(byte kind, int fromDay, int toDay) {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            int day = epochDays[i];
+            if (kinds[i] == kind && day >= fromDay && day <= toDay) {
+                total = Math.addExact(total, amounts[i]);
+            }
+        }
+        return total;
+    }
+
+    public int count(byte kind, int fromDay, int toDay) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int day = epochDays[i];
+            if (kinds[i] == kind && day >= fromDay && day <= toDay) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Totals of one kind per label over the inclusive range, indexed by label id.
+     */
+    public long[] sumByLabel(byte kind, int fromDay, int toDay) {
+        long[] totals = new long[labels.length];
+        for (int i = 0; i < size; i++) {
+            int day = epochDays[i];
+            if (kinds[i] == kind && day >= fromDay && day <= toDay) {
+                int label = labelIds[i];
+                totals[label] = Math.addExact(totals[label], amounts[i]);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Totals of one kind per calendar month, starting at the month of {@code fromDay}. Index 0 is
+     * that month, index 1 the next one, and so on up to the month of {@code toDay}.
+     */
+    public long[] sumByMonth(byte kind, int fromDay, int toDay) {
+        LocalDate first = LocalDate.ofEpochDay(fromDay).withDayOfMonth(1);
+        LocalDate last = LocalDate.ofEpochDay(toDay);
+        int months = (last.getYear() - first.getYear()) * 12 + last.getMonthValue() - first.getMonthValue() + 1;
+
+        // Month boundaries as epoch days, so the row loop only does integer comparisons.
+        int[] starts = new int[months + 1];
+        for (int m = 0; m <= months; m++) {
+            starts[m] = (int) first.plusMonths(m).toEpochDay();
+        }
+        long[] totals = new long[Math.max(months, 0)];
+        for (int i = 0; i < size; i++) {
+            int day = epochDays[i];
+            if (kinds[i] == kind && day >= fromDay && day <= toDay) {
+                int m = Arrays.binarySearch(starts, day);
+                int month = m >= 0 ? m : -m - 2;
+                totals[month] = Math.addExact(totals[month], amounts[i]);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Per-label totals as a map, largest first, leaving out labels with no rows in the range.
+     */
+    public Map<String, Long> labelTotals(byte kind, int fromDay, int toDay) {
+        long[] totals = sumByLabel(kind, fromDay, toDay);
+        Integer[] order = new Integer[totals.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(totals[b], totals[a]));
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int id : order) {
+            if (totals[id] != 0) {
+                result.put(labels[id], totals[id]);
+            }
+        }
+        return result;
+    }
+
+    public static final class Builder {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private int size;
+        private int[] ids = new int[INITIAL_CAPACITY];
+        private int[] epochDays = new int[INITIAL_CAPACITY];
+        private long[] amounts = new long[INITIAL_CAPACITY];
+        private byte[] kinds = new byte[INITIAL_CAPACITY];
+        private int[] labelIds = new int[INITIAL_CAPACITY];
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private String[] labels = new String[16];
+
+        public Builder add(byte kind, int id, int epochDay, long amount, String label) {
+            if (size == ids.length) {
+                grow();
+            }
+            ids[size] = id;
+            epochDays[size] = epochDay;
+            amounts[size] = amount;
+            kinds[size] = kind;
+            labelIds[size] = encode(kind, label);
+            size++;
+            return this;
+        }
+
+        public Builder addIncome(int id, int epochDay, long amount, String source) {
+            return add(INCOME, id, epochDay, amount, source);
+        }
+
+        public Builder addExpense(int id, int epochDay, long amount, String category) {
+            return add(EXPENSE, id, epochDay, amount, category);
+        }
+
+        private int encode(byte kind, String label) {
+            if (label == null) {
+                label = kind == EXPENSE ? MonthlySummaryRow.EXPENSE_FALLBACK_LABEL : MonthlySummaryRow.INCOME_FALLBACK_LABEL;
+            }
+            Integer existing = dictionary.get(label);
+            if (existing != null) {
+                return existing;
+            }
+            int id = dictionary.size();
+            if (id == labels.length) {
+                labels = Arrays.copyOf(labels, id * 2);
+            }
+            labels[id] = label;
+            dictionary.put(label, id);
+            return id;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+            labelIds = Arrays.copyOf(labelIds, capacity);
+        }
+
+        public ColumnarLedger build() {
+            return new ColumnarLedger(size,
+                    Arrays.copyOf(ids, size),
+                    Arrays.copyOf(epochDays, size),
+                    Arrays.copyOf(amounts, size),
+                    Arrays.copyOf(kinds, size),
+                    Arrays.copyOf(labelIds, size),
+                    Arrays.copyOf(labels, dictionary.size()));
+        }
+    }
+}
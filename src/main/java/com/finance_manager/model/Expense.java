@@ -4,7 +4,8 @@ import java.time.LocalDate;
 
 public class Expense {
     private int id;
-    private double amount;
+    /** Amount in cents. */
+    private long amountCents;
     private String category;
     private String description;
     private LocalDate date;
@@ -12,16 +13,16 @@ public class Expense {
     public Expense() {
     }
 
-    public Expense(double amount, String category, String description, LocalDate date) {
-        this.amount = amount;
+    public Expense(long amountCents, String category, String description, LocalDate date) {
+        this.amountCents = amountCents;
         this.category = category;
         this.description = description;
         this.date = date;
     }
 
-    public Expense(int id, double amount, String category, String description, LocalDate date) {
+    public Expense(int id, long amountCents, String category, String description, LocalDate date) {
         this.id = id;
-        this.amount = amount;
+        this.amountCents = amountCents;
         this.category = category;
         this.description = description;
         this.date = date;
@@ -35,12 +36,12 @@ public class Expense {
         this.id = id;
     }
 
-    public double getAmount() {
-        return amount;
+    public long getAmountCents() {
+        return amountCents;
     }
 
-    public void setAmount(double amount) {
-        this.amount = amount;
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
     }
 
     public String getCategory() {
@@ -71,7 +72,7 @@ public class Expense {
     public String toString() {
         return "Expense{" +
                 "id=" + id +
-                ", amount=" + amount +
+                ", amount=" + Money.format(amountCents) +
                 ", category='" + category + '\'' +
                 ", description='" + description + '\'' +
                 ", date=" + date +
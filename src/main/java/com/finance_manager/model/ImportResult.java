@@ -0,0 +1,38 @@
+package com.finance_manager.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ImportResult {
+    private int importedCount;
+    private final List<RowError> rowErrors = new ArrayList<>();
+
+    public int getImportedCount() {
+        return importedCount;
+    }
+
+    public void addImported(int count) {
+        this.importedCount += count;
+    }
+
+    public List<RowError> getRowErrors() {
+        return Collections.unmodifiableList(rowErrors);
+    }
+
+    public void addRowError(long lineNumber, String message) {
+        rowErrors.add(new RowError(lineNumber, message));
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResult{importedCount=" + importedCount + ", rejected=" + rowErrors.size() + '}';
+    }
+
+    public record RowError(long lineNumber, String message) {
+        @Override
+        public String toString() {
+            return "line " + lineNumber + ": " + message;
+        }
+    }
+}
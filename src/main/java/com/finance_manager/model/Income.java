@@ -4,7 +4,8 @@ import java.time.LocalDate;
 
 public class Income {
     private int id;
-    private double amount;
+    /** Amount in cents. */
+    private long amountCents;
     private String source;
     private String description;
     private LocalDate date;
@@ -12,16 +13,16 @@ public class Income {
     public Income() {
     }
 
-    public Income(double amount, String source, String description, LocalDate date) {
-        this.amount = amount;
+    public Income(long amountCents, String source, String description, LocalDate date) {
+        this.amountCents = amountCents;
         this.source = source;
         this.description = description;
         this.date = date;
     }
 
-    public Income(int id, double amount, String source, String description, LocalDate date) {
+    public Income(int id, long amountCents, String source, String description, LocalDate date) {
         this.id = id;
-        this.amount = amount;
+        this.amountCents = amountCents;
         this.source = source;
         this.description = description;
         this.date = date;
@@ -35,12 +36,12 @@ public class Income {
         this.id = id;
     }
 
-    public double getAmount() {
-        return amount;
+    public long getAmountCents() {
+        return amountCents;
     }
 
-    public void setAmount(double amount) {
-        this.amount = amount;
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
     }
 
     public String getSource() {
@@ -71,7 +72,7 @@ public class Income {
     public String toString() {
         return "Income{" +
                 "id=" + id +
-                ", amount=" + amount +
+                ", amount=" + Money.format(amountCents) +
                 ", source='" + source + '\'' +
                 ", description='" + description + '\'' +
                 ", date=" + date +
@@ -0,0 +1,12 @@
+package com.finance_manager.model;
+
+import java.time.LocalDate;
+
+/**
+ * One income or expense row in the merged transaction history. {@code change} is positive for
+ * income and negative for expense, in cents.
+ */
+public record LedgerEntry(int id, LocalDate date, String type, String label, String description, long change) {
+    public static final String INCOME = "INCOME";
+    public static final String EXPENSE = "EXPENSE";
+}
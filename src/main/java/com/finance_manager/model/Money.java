@@ -0,0 +1,66 @@
+package com.finance_manager.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Helpers for amounts held as a {@code long} number of cents (minor units).
+ * <p>
+ * Amounts are stored, summed and compared as exact integers; {@link BigDecimal} is only used to
+ * parse user input, never per row. Sums go through {@link #add(long, long)} so an overflow fails
+ * loudly instead of wrapping around.
+ */
+public final class Money {
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Parses a decimal amount such as {@code "12.5"} or {@code "-3.07"} into cents.
+     *
+     * @throws NumberFormatException if the text is not a number, has more than two decimals or
+     *                               does not fit in a {@code long}
+     */
+    public static long parse(String text) {
+        BigDecimal value = new BigDecimal(text.trim());
+        try {
+            return value.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount must have at most two decimal places and fit in range: " + text);
+        }
+    }
+
+    /**
+     * Formats cents as a plain decimal with two fraction digits, e.g. {@code -1234} as {@code -12.34}.
+     */
+    public static String format(long cents) {
+        StringBuilder sb = new StringBuilder(24);
+        appendTo(sb, cents);
+        return sb.toString();
+    }
+
+    public static void appendTo(StringBuilder sb, long cents) {
+        if (cents < 0) {
+            sb.append('-');
+        }
+        // Long.MIN_VALUE has no positive counterpart, so work on the negative magnitude.
+        long negative = cents < 0 ? cents : -cents;
+        long units = -(negative / 100);
+        int fraction = (int) -(negative % 100);
+        sb.append(units).append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+
+    /**
+     * Overflow-checked addition.
+     *
+     * @throws ArithmeticException if the result does not fit in a {@code long}
+     */
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+}
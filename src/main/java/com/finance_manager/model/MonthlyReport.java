@@ -1,45 +1,90 @@
 package com.finance_manager.model;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Income, expense and savings totals for a period. All amounts are in cents.
+ */
 public class MonthlyReport {
-    private double totalIncome;
-    private double totalExpense;
-    private double savings;
+    private long totalIncomeCents;
+    private long totalExpenseCents;
+    private long savingsCents;
+    private Map<String, Long> expenseByCategory = Collections.emptyMap();
+    private Map<String, Long> incomeBySource = Collections.emptyMap();
 
     public MonthlyReport() {}
 
-    public MonthlyReport(double totalIncome, double totalExpense) {
-        this.totalIncome = totalIncome;
-        this.totalExpense = totalExpense;
-        this.savings = totalIncome - totalExpense;
+    public MonthlyReport(long totalIncomeCents, long totalExpenseCents) {
+        this.totalIncomeCents = totalIncomeCents;
+        this.totalExpenseCents = totalExpenseCents;
+        this.savingsCents = Math.subtractExact(totalIncomeCents, totalExpenseCents);
+    }
+
+    public long getTotalIncomeCents() {
+        return totalIncomeCents;
+    }
+
+    public void setTotalIncomeCents(long totalIncomeCents) {
+        this.totalIncomeCents = totalIncomeCents;
+    }
+
+    public long getTotalExpenseCents() {
+        return totalExpenseCents;
+    }
+
+    public void setTotalExpenseCents(long totalExpenseCents) {
+        this.totalExpenseCents = totalExpenseCents;
     }
 
-    public double getTotalIncome() {
-        return totalIncome;
+    public long getSavingsCents() {
+        return savingsCents;
     }
 
-    public void setTotalIncome(double totalIncome) {
-        this.totalIncome = totalIncome;
+    public void setSavingsCents(long savingsCents) {
+        this.savingsCents = savingsCents;
     }
 
-    public double getTotalExpense() {
-        return totalExpense;
+    /**
+     * Expense totals per category, largest first. Empty unless the report was built with a breakdown.
+     */
+    public Map<String, Long> getExpenseByCategory() {
+        return expenseByCategory;
     }
 
-    public void setTotalExpense(double totalExpense) {
-        this.totalExpense = totalExpense;
+    public void setExpenseByCategory(Map<String, Long> expenseByCategory) {
+        this.expenseByCategory = expenseByCategory;
     }
 
-    public double getSavings() {
-        return savings;
+    /**
+     * Income totals per source, largest first. Empty unless the report was built with a breakdown.
+     */
+    public Map<String, Long> getIncomeBySource() {
+        return incomeBySource;
     }
 
-    public void setSavings(double savings) {
-        this.savings = savings;
+    public void setIncomeBySource(Map<String, Long> incomeBySource) {
+        this.incomeBySource = incomeBySource;
+    }
+
+    /**
+     * Independent copy, breakdown maps included, so changes to one do not show in the other.
+     */
+    public MonthlyReport copy() {
+        MonthlyReport copy = new MonthlyReport();
+        copy.totalIncomeCents = totalIncomeCents;
+        copy.totalExpenseCents = totalExpenseCents;
+        copy.savingsCents = savingsCents;
+        copy.expenseByCategory = new LinkedHashMap<>(expenseByCategory);
+        copy.incomeBySource = new LinkedHashMap<>(incomeBySource);
+        return copy;
     }
 
     @Override
     public String toString() {
-        return String.format("MonthlyReport{totalIncome=%.2f, totalExpense=%.2f, savings=%.2f}", totalIncome, totalExpense, savings);
+        return "MonthlyReport{totalIncome=" + Money.format(totalIncomeCents)
+                + ", totalExpense=" + Money.format(totalExpenseCents)
+                + ", savings=" + Money.format(savingsCents) + '}';
     }
 }
-
@@ -0,0 +1,33 @@
+package com.finance_manager.model;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the {@code monthly_summary} rollup: the total and transaction count of one
+ * income source or expense category in one month. Also used as a signed delta when writes
+ * are applied to the rollup. {@code total} is in cents.
+ */
+public record MonthlySummaryRow(int year, int month, String kind, String label, long total, long count) {
+    public static final String INCOME = "INCOME";
+    public static final String EXPENSE = "EXPENSE";
+
+    /** Label stored for expenses without a category; matches the DAO per-category query. */
+    public static final String EXPENSE_FALLBACK_LABEL = "Uncategorized";
+    /** Label stored for incomes without a source; matches the DAO per-source query. */
+    public static final String INCOME_FALLBACK_LABEL = "Unspecified";
+
+    public static MonthlySummaryRow delta(String kind, LocalDate date, String label, long amount, long count) {
+        if (label == null) {
+            label = EXPENSE.equals(kind) ? EXPENSE_FALLBACK_LABEL : INCOME_FALLBACK_LABEL;
+        }
+        return new MonthlySummaryRow(date.getYear(), date.getMonthValue(), kind, label, amount, count);
+    }
+
+    public String key() {
+        return year + "-" + month + "|" + kind + "|" + label;
+    }
+
+    public MonthlySummaryRow plus(MonthlySummaryRow other) {
+        return new MonthlySummaryRow(year, month, kind, label, Money.add(total, other.total), count + other.count);
+    }
+}
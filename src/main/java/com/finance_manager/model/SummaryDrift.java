@@ -0,0 +1,15 @@
+package com.finance_manager.model;
+
+/**
+ * A rollup row whose stored values disagree with what the base tables say.
+ */
+public record SummaryDrift(int year, int month, String kind, String label,
+                           long expectedTotal, long actualTotal,
+                           long expectedCount, long actualCount) {
+
+    @Override
+    public String toString() {
+        return String.format("%d-%02d %-7s %-20s expected %s (%d) but rollup has %s (%d)",
+                year, month, kind, label, Money.format(expectedTotal), expectedCount, Money.format(actualTotal), actualCount);
+    }
+}
@@ -0,0 +1,42 @@
+package com.finance_manager.model;
+
+import java.time.YearMonth;
+
+/**
+ * Bucket size of a trend report. Buckets are whole calendar months, quarters or years.
+ */
+public enum TrendPeriod {
+    MONTH(1),
+    QUARTER(3),
+    YEAR(12);
+
+    private final int months;
+
+    TrendPeriod(int months) {
+        this.months = months;
+    }
+
+    public int months() {
+        return months;
+    }
+
+    /**
+     * First month of the bucket that contains {@code month}.
+     */
+    public YearMonth startOf(YearMonth month) {
+        int index = (month.getMonthValue() - 1) / months * months;
+        return YearMonth.of(month.getYear(), index + 1);
+    }
+
+    /**
+     * Display name of the bucket starting at {@code start}, e.g. {@code 2026-03}, {@code 2026-Q1}
+     * or {@code 2026}.
+     */
+    public String label(YearMonth start) {
+        return switch (this) {
+            case MONTH -> start.toString();
+            case QUARTER -> start.getYear() + "-Q" + ((start.getMonthValue() - 1) / 3 + 1);
+            case YEAR -> String.valueOf(start.getYear());
+        };
+    }
+}
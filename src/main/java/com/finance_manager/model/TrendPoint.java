@@ -0,0 +1,10 @@
+package com.finance_manager.model;
+
+import java.time.YearMonth;
+
+/**
+ * One bucket of a {@link TrendReport}. {@code cumulativeSavings} is the sum of savings from the
+ * first bucket of the report up to and including this one. Amounts are in cents.
+ */
+public record TrendPoint(String period, YearMonth start, long income, long expense, long savings, long cumulativeSavings) {
+}
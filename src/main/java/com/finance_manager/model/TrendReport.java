@@ -0,0 +1,31 @@
+package com.finance_manager.model;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Income, expense and savings per bucket over a span of months, oldest first. Buckets without
+ * transactions are included with zero totals, so consecutive points are always adjacent periods.
+ */
+public record TrendReport(TrendPeriod granularity, YearMonth from, YearMonth to, List<TrendPoint> points) {
+
+    public long totalIncome() {
+        return points.stream().mapToLong(TrendPoint::income).reduce(0L, Money::add);
+    }
+
+    public long totalExpense() {
+        return points.stream().mapToLong(TrendPoint::expense).reduce(0L, Money::add);
+    }
+
+    public long totalSavings() {
+        return points.isEmpty() ? 0 : points.get(points.size() - 1).cumulativeSavings();
+    }
+
+    /**
+     * The point one year before {@code index}, or {@code null} if the report does not reach back that far.
+     */
+    public TrendPoint yearEarlier(int index) {
+        int offset = 12 / granularity.months();
+        return index >= offset ? points.get(index - offset) : null;
+    }
+}
@@ -0,0 +1,165 @@
+package com.finance_manager.service;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.exceptions.InvalidAmountException;
+import com.finance_manager.model.Expense;
+import com.finance_manager.model.ImportResult;
+import com.finance_manager.model.Income;
+import com.finance_manager.model.Money;
+import com.finance_manager.utils.CsvParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams CSV bank exports into the database in batches.
+ * <p>
+ * Expected columns: {@code date,amount,category|source,description}. A header line is skipped if
+ * its first column is {@code date}. An empty date means today, the same default the services use.
+ * Rows that fail parsing or validation, or that the database rejects, are reported in the
+ * {@link ImportResult} and skipped; the rest of the file is still imported.
+ */
+public class CsvImportService {
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+
+    private final IncomeService incomeService;
+    private final ExpenseService expenseService;
+
+    public CsvImportService(IncomeService incomeService, ExpenseService expenseService) {
+        this.incomeService = incomeService;
+        this.expenseService = expenseService;
+    }
+
+    public ImportResult importExpenses(Reader source) throws IOException, DatabaseOperationException {
+        ImportResult result = new ImportResult();
+        List<Expense> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        List<Long> chunkLines = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (skipLine(line, lineNumber)) {
+                continue;
+            }
+            try {
+                List<String> fields = fields(line);
+                Expense expense = new Expense(parseAmount(fields.get(1)), fields.get(2), fields.get(3), parseDate(fields.get(0)));
+                expenseService.validateExpense(expense);
+                chunk.add(expense);
+                chunkLines.add(lineNumber);
+            } catch (IllegalArgumentException | DateTimeParseException | InvalidAmountException e) {
+                result.addRowError(lineNumber, e.getMessage());
+                continue;
+            }
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                flush(chunk, chunkLines, result, expenseService::addExpenses);
+            }
+        }
+        flush(chunk, chunkLines, result, expenseService::addExpenses);
+        return result;
+    }
+
+    public ImportResult importIncomes(Reader source) throws IOException, DatabaseOperationException {
+        ImportResult result = new ImportResult();
+        List<Income> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        List<Long> chunkLines = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (skipLine(line, lineNumber)) {
+                continue;
+            }
+            try {
+                List<String> fields = fields(line);
+                Income income = new Income(parseAmount(fields.get(1)), fields.get(2), fields.get(3), parseDate(fields.get(0)));
+                incomeService.validateIncome(income);
+                chunk.add(income);
+                chunkLines.add(lineNumber);
+            } catch (IllegalArgumentException | DateTimeParseException | InvalidAmountException e) {
+                result.addRowError(lineNumber, e.getMessage());
+                continue;
+            }
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                flush(chunk, chunkLines, result, incomeService::addIncomes);
+            }
+        }
+        flush(chunk, chunkLines, result, incomeService::addIncomes);
+        return result;
+    }
+
+    /**
+     * Inserts the chunk in one transaction. If that fails, the chunk has rolled back as a whole, so
+     * its rows are inserted one by one and only the ones the database rejects (e.g. a description
+     * too long for its column) become row errors.
+     */
+    private static <T> void flush(List<T> chunk, List<Long> lines, ImportResult result, ChunkInsert<T> insert) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            insertValidated(chunk, insert);
+            result.addImported(chunk.size());
+        } catch (DatabaseOperationException e) {
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    insertValidated(List.of(chunk.get(i)), insert);
+                    result.addImported(1);
+                } catch (DatabaseOperationException rowError) {
+                    result.addRowError(lines.get(i), rowError.getMessage());
+                }
+            }
+        }
+        chunk.clear();
+        lines.clear();
+    }
+
+    private static <T> void insertValidated(List<T> rows, ChunkInsert<T> insert) throws DatabaseOperationException {
+        try {
+            insert.insert(rows);
+        } catch (InvalidAmountException e) {
+            // rows were validated when they were read
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean skipLine(String line, long lineNumber) {
+        if (line.isBlank()) {
+            return true;
+        }
+        return lineNumber == 1 && line.trim().toLowerCase(Locale.ROOT).startsWith("date");
+    }
+
+    private static List<String> fields(String line) {
+        List<String> fields = CsvParser.parseLine(line);
+        if (fields.size() < 4) {
+            throw new IllegalArgumentException("Expected 4 columns but found " + fields.size());
+        }
+        return fields;
+    }
+
+    private static long parseAmount(String value) {
+        try {
+            return Money.parse(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount '" + value + "'");
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        return value.isEmpty() ? null : LocalDate.parse(value);
+    }
+
+    @FunctionalInterface
+    private interface ChunkInsert<T> {
+        void insert(List<T> rows) throws InvalidAmountException, DatabaseOperationException;
+    }
+}
@@ -1,23 +1,121 @@
 package com.finance_manager.service;
 
-import com.finance_manager.dao.impl.ExpenseDAO;
+import com.finance_manager.dao.DaoFactory;
+import com.finance_manager.dao.impl.InstrumentedExpenseDAO;
 import com.finance_manager.exceptions.DatabaseOperationException;
 import com.finance_manager.exceptions.InvalidAmountException;
+import com.finance_manager.exceptions.RecordNotFoundException;
+import com.finance_manager.interfaces.AmountChangeListener;
+import com.finance_manager.interfaces.ColumnVisitor;
+import com.finance_manager.interfaces.DataChangeListener;
 import com.finance_manager.model.Expense;
+import com.finance_manager.model.MonthlySummaryRow;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public class ExpenseService {
     private final com.finance_manager.interfaces.ExpenseDAO expenseDAO;
+    private final MonthlySummaryService summaryService;
+    private final List<DataChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private final List<AmountChangeListener> amountListeners = new CopyOnWriteArrayList<>();
+    private final WriteBehindQueue<Expense> writeBehind;
 
-    public ExpenseService() {
-        this.expenseDAO = new ExpenseDAO();
+    public ExpenseService() throws DatabaseOperationException {
+        this(WriteBehindConfig.fromEnv());
     }
 
+    /**
+     * With write-behind enabled, single adds are queued and committed in groups by a background
+     * writer instead of one transaction each.
+     */
+    public ExpenseService(WriteBehindConfig writeBehind) throws DatabaseOperationException {
+        this.expenseDAO = new InstrumentedExpenseDAO(DaoFactory.getInstance().expenseDAO());
+        this.summaryService = new MonthlySummaryService();
+        this.writeBehind = writeBehind.enabled()
+                ? new WriteBehindQueue<>("expense", writeBehind, this::addExpenses, Expense::getId)
+                : null;
+    }
+
+    /**
+     * Returns once the expense is committed. In write-behind mode it is written with whatever
+     * else is queued at the time.
+     */
     public void addExpense(Expense expense) throws InvalidAmountException, DatabaseOperationException {
         validateExpense(expense);
-        expenseDAO.insertExpense(expense);
+        if (writeBehind != null) {
+            await(writeBehind.submit(expense));
+            return;
+        }
+        DaoFactory.getInstance().inTransaction(() -> {
+            expenseDAO.insertExpense(expense);
+            summaryService.applyDeltas(List.of(delta(expense, 1)));
+            return null;
+        });
+        fireAmountChanged(expense.getDate(), expense.getAmountCents());
+        fireChanged(expense.getDate());
+    }
+
+    /**
+     * Validates expense and returns without waiting for the insert. The future completes with the
+     * generated id once committed; without write-behind the insert has already happened.
+     */
+    public CompletableFuture<Integer> addExpenseAsync(Expense expense) throws InvalidAmountException {
+        validateExpense(expense);
+        if (writeBehind != null) {
+            return writeBehind.submit(expense);
+        }
+        try {
+            addExpense(expense);
+            return CompletableFuture.completedFuture(expense.getId());
+        } catch (DatabaseOperationException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Blocks until every expense queued so far has been written. No-op without write-behind.
+     */
+    public void flush() throws DatabaseOperationException {
+        if (writeBehind != null) {
+            await(writeBehind.flush());
+        }
+    }
+
+    /**
+     * Writes out anything still queued and stops the background writer.
+     */
+    public void shutdown() {
+        if (writeBehind != null) {
+            writeBehind.close();
+        }
+    }
+
+    /**
+     * Validates every expense first, then inserts them all in batches within one transaction
+     * together with the matching monthly summary updates.
+     */
+    public void addExpenses(List<Expense> expenses) throws InvalidAmountException, DatabaseOperationException {
+        List<MonthlySummaryRow> deltas = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            validateExpense(expense);
+            deltas.add(delta(expense, 1));
+        }
+        DaoFactory.getInstance().inTransaction(() -> {
+            expenseDAO.insertExpenses(expenses);
+            summaryService.applyDeltas(deltas);
+            return null;
+        });
+        for (Expense expense : expenses) {
+            fireAmountChanged(expense.getDate(), expense.getAmountCents());
+        }
+        expenses.stream().map(Expense::getDate).distinct().forEach(this::fireChanged);
     }
 
     public List<Expense> getExpenseByMonth(int year, int month) throws DatabaseOperationException {
@@ -28,22 +126,111 @@ public class ExpenseService {
         return expenseDAO.fetchByDateRange(from, to);
     }
 
+    /**
+     * One keyset page in (date, id) order; see {@link com.finance_manager.interfaces.ExpenseDAO#fetchPage}.
+     */
+    public List<Expense> getExpensePage(LocalDate from, LocalDate to, LocalDate afterDate, int afterId, int limit) throws DatabaseOperationException {
+        return expenseDAO.fetchPage(from, to, afterDate, afterId, limit);
+    }
+
+    public void streamExpenseByDateRange(LocalDate from, LocalDate to, Consumer<Expense> visitor) throws DatabaseOperationException {
+        expenseDAO.streamByDateRange(from, to, visitor);
+    }
+
+    public void scanExpenseByDateRange(LocalDate from, LocalDate to, ColumnVisitor visitor) throws DatabaseOperationException {
+        expenseDAO.scanByDateRange(from, to, visitor);
+    }
+
+    public long getTotalExpenseByMonth(int year, int month) throws DatabaseOperationException {
+        return expenseDAO.sumByMonth(year, month);
+    }
+
+    public long getTotalExpenseByDateRange(LocalDate from, LocalDate to) throws DatabaseOperationException {
+        return expenseDAO.sumByDateRange(from, to);
+    }
+
+    public Map<String, Long> getExpenseTotalsByCategory(LocalDate from, LocalDate to) throws DatabaseOperationException {
+        return expenseDAO.sumByCategory(from, to);
+    }
+
     public void updateExpense(Expense expense) throws InvalidAmountException, DatabaseOperationException {
         validateExpense(expense);
-        expenseDAO.updateExpense(expense);
+        Expense previous = DaoFactory.getInstance().inTransaction(() -> {
+            Expense old = expenseDAO.fetchById(expense.getId());
+            if (old == null) {
+                throw new RecordNotFoundException("Expense " + expense.getId() + " not found.");
+            }
+            expenseDAO.updateExpense(expense);
+            summaryService.applyDeltas(List.of(delta(old, -1), delta(expense, 1)));
+            return old;
+        });
+        fireAmountChanged(previous.getDate(), -previous.getAmountCents());
+        fireAmountChanged(expense.getDate(), expense.getAmountCents());
+        fireChanged(previous.getDate());
+        fireChanged(expense.getDate());
     }
 
     public void deleteExpense(int id) throws DatabaseOperationException {
-        expenseDAO.deleteExpense(id);
+        Expense previous = DaoFactory.getInstance().inTransaction(() -> {
+            Expense old = expenseDAO.fetchById(id);
+            if (old == null) {
+                throw new RecordNotFoundException("Expense " + id + " not found.");
+            }
+            expenseDAO.deleteExpense(id);
+            summaryService.applyDeltas(List.of(delta(old, -1)));
+            return old;
+        });
+        fireAmountChanged(previous.getDate(), -previous.getAmountCents());
+        fireChanged(previous.getDate());
+    }
+
+    /**
+     * Registers a listener that is told which dates were touched after each committed write.
+     */
+    public void addChangeListener(DataChangeListener listener) {
+        changeListeners.add(listener);
     }
 
-    private void validateExpense(Expense expense) throws InvalidAmountException {
-        if (expense == null || expense.getAmount() <= 0) {
+    /**
+     * Registers a listener that is told the signed amount each committed write added on each date.
+     */
+    public void addAmountListener(AmountChangeListener listener) {
+        amountListeners.add(listener);
+    }
+
+    private void fireAmountChanged(LocalDate date, long delta) {
+        for (AmountChangeListener listener : amountListeners) {
+            listener.onAmountChanged(date, delta);
+        }
+    }
+
+    private void fireChanged(LocalDate date) {
+        for (DataChangeListener listener : changeListeners) {
+            listener.onDataChanged(date);
+        }
+    }
+
+    private static MonthlySummaryRow delta(Expense expense, int sign) {
+        return MonthlySummaryRow.delta(MonthlySummaryRow.EXPENSE, expense.getDate(), expense.getCategory(), sign * expense.getAmountCents(), sign);
+    }
+
+    void validateExpense(Expense expense) throws InvalidAmountException {
+        if (expense == null || expense.getAmountCents() <= 0) {
             throw new InvalidAmountException("Expense amount must be greater than zero.");
         }
         if (expense.getDate() == null) {
             expense.setDate(LocalDate.now());
         }
     }
-}
 
+    private static void await(CompletableFuture<Integer> future) throws DatabaseOperationException {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof DatabaseOperationException cause) {
+                throw cause;
+            }
+            throw new DatabaseOperationException("Write failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.finance_manager.service;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.interfaces.ExpenseDAO;
+import com.finance_manager.interfaces.IncomeDAO;
+import com.finance_manager.model.Expense;
+import com.finance_manager.model.Income;
+import com.finance_manager.model.LedgerEntry;
+import com.finance_manager.model.Money;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Pages through the merged income/expense history of a date range in the same order as
+ * {@link LedgerService#streamHistory}, carrying the running balance across pages.
+ * <p>
+ * Each table is read with keyset pages of {@code pageSize} rows and merged through a small
+ * lookahead buffer, so a page costs at most one indexed query per table and holds no connection
+ * between pages. Rows written behind the cursor after paging started are not seen.
+ */
+public class HistoryPager {
+    private final IncomeDAO incomeDAO;
+    private final ExpenseDAO expenseDAO;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final int pageSize;
+
+    private final ArrayDeque<Income> incomes = new ArrayDeque<>();
+    private final ArrayDeque<Expense> expenses = new ArrayDeque<>();
+    private LocalDate incomeAfterDate;
+    private int incomeAfterId;
+    private boolean incomesExhausted;
+    private LocalDate expenseAfterDate;
+    private int expenseAfterId;
+    private boolean expensesExhausted;
+    private long balance;
+
+    HistoryPager(IncomeDAO incomeDAO, ExpenseDAO expenseDAO, LocalDate from, LocalDate to, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be greater than zero.");
+        }
+        this.incomeDAO = incomeDAO;
+        this.expenseDAO = expenseDAO;
+        this.from = from;
+        this.to = to;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Visits the next page of at most {@code pageSize} entries with the balance after each.
+     *
+     * @return the number of entries visited; 0 once the history is exhausted
+     */
+    public int nextPage(LedgerService.HistoryVisitor visitor) throws DatabaseOperationException {
+        int visited = 0;
+        while (visited < pageSize) {
+            fill();
+            Income income = incomes.peekFirst();
+            Expense expense = expenses.peekFirst();
+            LedgerEntry entry;
+            // On the same date incomes go first, as in LedgerDAO.streamMerged.
+            if (income != null && (expense == null || !income.getDate().isAfter(expense.getDate()))) {
+                incomes.pollFirst();
+                entry = new LedgerEntry(income.getId(), income.getDate(), LedgerEntry.INCOME, income.getSource(),
+                        income.getDescription(), income.getAmountCents());
+            } else if (expense != null) {
+                expenses.pollFirst();
+                entry = new LedgerEntry(expense.getId(), expense.getDate(), LedgerEntry.EXPENSE, expense.getCategory(),
+                        expense.getDescription(), -expense.getAmountCents());
+            } else {
+                break;
+            }
+            balance = Money.add(balance, entry.change());
+            visitor.visit(entry, balance);
+            visited++;
+        }
+        return visited;
+    }
+
+    /**
+     * Whether another call to {@link #nextPage} will return entries. May fetch the next page.
+     */
+    public boolean hasMore() throws DatabaseOperationException {
+        fill();
+        return !incomes.isEmpty() || !expenses.isEmpty();
+    }
+
+    /**
+     * Balance after the last entry visited so far, in cents.
+     */
+    public long getBalance() {
+        return balance;
+    }
+
+    private void fill() throws DatabaseOperationException {
+        if (incomes.isEmpty() && !incomesExhausted) {
+            List<Income> page = incomeDAO.fetchPage(from, to, incomeAfterDate, incomeAfterId, pageSize);
+            if (page.size() < pageSize) {
+                incomesExhausted = true;
+            }
+            if (!page.isEmpty()) {
+                Income last = page.get(page.size() - 1);
+                incomeAfterDate = last.getDate();
+                incomeAfterId = last.getId();
+                incomes.addAll(page);
+            }
+        }
+        if (expenses.isEmpty() && !expensesExhausted) {
+            List<Expense> page = expenseDAO.fetchPage(from, to, expenseAfterDate, expenseAfterId, pageSize);
+            if (page.size() < pageSize) {
+                expensesExhausted = true;
+            }
+            if (!page.isEmpty()) {
+                Expense last = page.get(page.size() - 1);
+                expenseAfterDate = last.getDate();
+                expenseAfterId = last.getId();
+                expenses.addAll(page);
+            }
+        }
+    }
+}
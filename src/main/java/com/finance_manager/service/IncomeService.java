@@ -1,23 +1,121 @@
 package com.finance_manager.service;
 
-import com.finance_manager.dao.impl.IncomeDAO;
+import com.finance_manager.dao.DaoFactory;
+import com.finance_manager.dao.impl.InstrumentedIncomeDAO;
 import com.finance_manager.exceptions.DatabaseOperationException;
 import com.finance_manager.exceptions.InvalidAmountException;
+import com.finance_manager.exceptions.RecordNotFoundException;
+import com.finance_manager.interfaces.AmountChangeListener;
+import com.finance_manager.interfaces.ColumnVisitor;
+import com.finance_manager.interfaces.DataChangeListener;
 import com.finance_manager.model.Income;
+import com.finance_manager.model.MonthlySummaryRow;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public class IncomeService {
     private final com.finance_manager.interfaces.IncomeDAO incomeDAO;
+    private final MonthlySummaryService summaryService;
+    private final List<DataChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private final List<AmountChangeListener> amountListeners = new CopyOnWriteArrayList<>();
+    private final WriteBehindQueue<Income> writeBehind;
 
-    public IncomeService() {
-        this.incomeDAO = new IncomeDAO();
+    public IncomeService() throws DatabaseOperationException {
+        this(WriteBehindConfig.fromEnv());
     }
 
+    /**
+     * With write-behind enabled, single adds are queued and committed in groups by a background
+     * writer instead of one transaction each.
+     */
+    public IncomeService(WriteBehindConfig writeBehind) throws DatabaseOperationException {
+        this.incomeDAO = new InstrumentedIncomeDAO(DaoFactory.getInstance().incomeDAO());
+        this.summaryService = new MonthlySummaryService();
+        this.writeBehind = writeBehind.enabled()
+                ? new WriteBehindQueue<>("income", writeBehind, this::addIncomes, Income::getId)
+                : null;
+    }
+
+    /**
+     * Returns once the income is committed. In write-behind mode it is written with whatever
+     * else is queued at the time.
+     */
     public void addIncome(Income income) throws InvalidAmountException, DatabaseOperationException {
         validateIncome(income);
-        incomeDAO.insertIncome(income);
+        if (writeBehind != null) {
+            await(writeBehind.submit(income));
+            return;
+        }
+        DaoFactory.getInstance().inTransaction(() -> {
+            incomeDAO.insertIncome(income);
+            summaryService.applyDeltas(List.of(delta(income, 1)));
+            return null;
+        });
+        fireAmountChanged(income.getDate(), income.getAmountCents());
+        fireChanged(income.getDate());
+    }
+
+    /**
+     * Validates income and returns without waiting for the insert. The future completes with the
+     * generated id once committed; without write-behind the insert has already happened.
+     */
+    public CompletableFuture<Integer> addIncomeAsync(Income income) throws InvalidAmountException {
+        validateIncome(income);
+        if (writeBehind != null) {
+            return writeBehind.submit(income);
+        }
+        try {
+            addIncome(income);
+            return CompletableFuture.completedFuture(income.getId());
+        } catch (DatabaseOperationException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Blocks until every income queued so far has been written. No-op without write-behind.
+     */
+    public void flush() throws DatabaseOperationException {
+        if (writeBehind != null) {
+            await(writeBehind.flush());
+        }
+    }
+
+    /**
+     * Writes out anything still queued and stops the background writer.
+     */
+    public void shutdown() {
+        if (writeBehind != null) {
+            writeBehind.close();
+        }
+    }
+
+    /**
+     * Validates every income first, then inserts them all in batches within one transaction
+     * together with the matching monthly summary updates.
+     */
+    public void addIncomes(List<Income> incomes) throws InvalidAmountException, DatabaseOperationException {
+        List<MonthlySummaryRow> deltas = new ArrayList<>(incomes.size());
+        for (Income income : incomes) {
+            validateIncome(income);
+            deltas.add(delta(income, 1));
+        }
+        DaoFactory.getInstance().inTransaction(() -> {
+            incomeDAO.insertIncomes(incomes);
+            summaryService.applyDeltas(deltas);
+            return null;
+        });
+        for (Income income : incomes) {
+            fireAmountChanged(income.getDate(), income.getAmountCents());
+        }
+        incomes.stream().map(Income::getDate).distinct().forEach(this::fireChanged);
     }
 
     public List<Income> getIncomeByMonth(int year, int month) throws DatabaseOperationException {
@@ -28,22 +126,111 @@ public class IncomeService {
         return incomeDAO.fetchByDateRange(from, to);
     }
 
+    /**
+     * One keyset page in (date, id) order; see {@link com.finance_manager.interfaces.IncomeDAO#fetchPage}.
+     */
+    public List<Income> getIncomePage(LocalDate from, LocalDate to, LocalDate afterDate, int afterId, int limit) throws DatabaseOperationException {
+        return incomeDAO.fetchPage(from, to, afterDate, afterId, limit);
+    }
+
+    public void streamIncomeByDateRange(LocalDate from, LocalDate to, Consumer<Income> visitor) throws DatabaseOperationException {
+        incomeDAO.streamByDateRange(from, to, visitor);
+    }
+
+    public void scanIncomeByDateRange(LocalDate from, LocalDate to, ColumnVisitor visitor) throws DatabaseOperationException {
+        incomeDAO.scanByDateRange(from, to, visitor);
+    }
+
+    public long getTotalIncomeByMonth(int year, int month) throws DatabaseOperationException {
+        return incomeDAO.sumByMonth(year, month);
+    }
+
+    public long getTotalIncomeByDateRange(LocalDate from, LocalDate to) throws DatabaseOperationException {
+        return incomeDAO.sumByDateRange(from, to);
+    }
+
+    public Map<String, Long> getIncomeTotalsBySource(LocalDate from, LocalDate to) throws DatabaseOperationException {
+        return incomeDAO.sumBySource(from, to);
+    }
+
     public void updateIncome(Income income) throws InvalidAmountException, DatabaseOperationException {
         validateIncome(income);
-        incomeDAO.updateIncome(income);
+        Income previous = DaoFactory.getInstance().inTransaction(() -> {
+            Income old = incomeDAO.fetchById(income.getId());
+            if (old == null) {
+                throw new RecordNotFoundException("Income " + income.getId() + " not found.");
+            }
+            incomeDAO.updateIncome(income);
+            summaryService.applyDeltas(List.of(delta(old, -1), delta(income, 1)));
+            return old;
+        });
+        fireAmountChanged(previous.getDate(), -previous.getAmountCents());
+        fireAmountChanged(income.getDate(), income.getAmountCents());
+        fireChanged(previous.getDate());
+        fireChanged(income.getDate());
     }
 
     public void deleteIncome(int id) throws DatabaseOperationException {
-        incomeDAO.deleteIncome(id);
+        Income previous = DaoFactory.getInstance().inTransaction(() -> {
+            Income old = incomeDAO.fetchById(id);
+            if (old == null) {
+                throw new RecordNotFoundException("Income " + id + " not found.");
+            }
+            incomeDAO.deleteIncome(id);
+            summaryService.applyDeltas(List.of(delta(old, -1)));
+            return old;
+        });
+        fireAmountChanged(previous.getDate(), -previous.getAmountCents());
+        fireChanged(previous.getDate());
+    }
+
+    /**
+     * Registers a listener that is told which dates were touched after each committed write.
+     */
+    public void addChangeListener(DataChangeListener listener) {
+        changeListeners.add(listener);
     }
 
-    private void validateIncome(Income income) throws InvalidAmountException {
-        if (income == null || income.getAmount() <= 0) {
+    /**
+     * Registers a listener that is told the signed amount each committed write added on each date.
+     */
+    public void addAmountListener(AmountChangeListener listener) {
+        amountListeners.add(listener);
+    }
+
+    private void fireAmountChanged(LocalDate date, long delta) {
+        for (AmountChangeListener listener : amountListeners) {
+            listener.onAmountChanged(date, delta);
+        }
+    }
+
+    private void fireChanged(LocalDate date) {
+        for (DataChangeListener listener : changeListeners) {
+            listener.onDataChanged(date);
+        }
+    }
+
+    private static MonthlySummaryRow delta(Income income, int sign) {
+        return MonthlySummaryRow.delta(MonthlySummaryRow.INCOME, income.getDate(), income.getSource(), sign * income.getAmountCents(), sign);
+    }
+
+    void validateIncome(Income income) throws InvalidAmountException {
+        if (income == null || income.getAmountCents() <= 0) {
             throw new InvalidAmountException("Income amount must be greater than zero.");
         }
         if (income.getDate() == null) {
             income.setDate(LocalDate.now());
         }
     }
-}
 
+    private static void await(CompletableFuture<Integer> future) throws DatabaseOperationException {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof DatabaseOperationException cause) {
+                throw cause;
+            }
+            throw new DatabaseOperationException("Write failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.finance_manager.service;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.metrics.MetricsRegistry;
+import com.finance_manager.metrics.OperationMetrics;
+import com.finance_manager.model.ColumnarLedger;
+import com.finance_manager.model.MonthlyReport;
+import com.finance_manager.model.TrendPeriod;
+import com.finance_manager.model.TrendReport;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * {@link ReportService} that records every report under {@code report.<kind>} in the
+ * {@link MetricsRegistry}. Latency runs from the call until the future completes, so it covers
+ * cache hits, queueing for a query thread and the queries themselves; the synchronous methods
+ * delegate to the async ones and are counted there.
+ */
+public class InstrumentedReportService extends ReportService {
+    private final OperationMetrics monthly;
+    private final OperationMetrics customRange;
+    private final OperationMetrics customBreakdown;
+    private final OperationMetrics loadLedger;
+    private final OperationMetrics trend;
+
+    public InstrumentedReportService(IncomeService incomeService, ExpenseService expenseService) throws DatabaseOperationException {
+        super(incomeService, expenseService);
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        this.monthly = registry.operation("report.monthly");
+        this.customRange = registry.operation("report.customRange");
+        this.customBreakdown = registry.operation("report.customBreakdown");
+        this.loadLedger = registry.operation("report.loadLedger");
+        this.trend = registry.operation("report.trend");
+    }
+
+    @Override
+    public CompletableFuture<MonthlyReport> generateMonthlyReportAsync(int year, int month) {
+        return timed(monthly, () -> super.generateMonthlyReportAsync(year, month));
+    }
+
+    @Override
+    public CompletableFuture<MonthlyReport> generateCustomDateReportAsync(LocalDate from, LocalDate to) {
+        return timed(customRange, () -> super.generateCustomDateReportAsync(from, to));
+    }
+
+    @Override
+    public CompletableFuture<MonthlyReport> generateCustomDateBreakdownAsync(LocalDate from, LocalDate to) {
+        return timed(customBreakdown, () -> super.generateCustomDateBreakdownAsync(from, to));
+    }
+
+    @Override
+    public CompletableFuture<TrendReport> generateTrendAsync(YearMonth from, YearMonth to, TrendPeriod granularity) {
+        return timed(trend, () -> super.generateTrendAsync(from, to, granularity));
+    }
+
+    @Override
+    public ColumnarLedger loadLedger(LocalDate from, LocalDate to) throws DatabaseOperationException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        int rows = 0;
+        try {
+            ColumnarLedger ledger = super.loadLedger(from, to);
+            rows = ledger.size();
+            failed = false;
+            return ledger;
+        } finally {
+            loadLedger.record(System.nanoTime() - start, rows, failed);
+        }
+    }
+
+    private static <T> CompletableFuture<T> timed(OperationMetrics metrics, Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        return call.get().whenComplete((result, error) -> metrics.record(System.nanoTime() - start, 1, error != null));
+    }
+}
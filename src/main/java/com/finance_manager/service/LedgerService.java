@@ -0,0 +1,62 @@
+package com.finance_manager.service;
+
+import com.finance_manager.dao.DaoFactory;
+import com.finance_manager.dao.impl.InstrumentedExpenseDAO;
+import com.finance_manager.dao.impl.InstrumentedIncomeDAO;
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.model.LedgerEntry;
+import com.finance_manager.model.Money;
+
+import java.time.LocalDate;
+
+/**
+ * Date-ordered income/expense history with a running balance, produced as a stream.
+ */
+public class LedgerService {
+    private final com.finance_manager.interfaces.LedgerDAO ledgerDAO;
+    private final com.finance_manager.interfaces.IncomeDAO incomeDAO;
+    private final com.finance_manager.interfaces.ExpenseDAO expenseDAO;
+
+    public LedgerService() throws DatabaseOperationException {
+        DaoFactory daos = DaoFactory.getInstance();
+        this.ledgerDAO = daos.ledgerDAO();
+        this.incomeDAO = new InstrumentedIncomeDAO(daos.incomeDAO());
+        this.expenseDAO = new InstrumentedExpenseDAO(daos.expenseDAO());
+    }
+
+    /**
+     * Visits every transaction in the inclusive range in (date, income-before-expense, id)
+     * order together with the balance after it, starting from zero. Memory use is constant
+     * whatever the size of the range.
+     *
+     * @return the closing balance in cents
+     */
+    public long streamHistory(LocalDate from, LocalDate to, HistoryVisitor visitor) throws DatabaseOperationException {
+        if (from.isAfter(to)) {
+            LocalDate tmp = from;
+            from = to;
+            to = tmp;
+        }
+        long[] balance = {0};
+        ledgerDAO.streamMerged(from, to, entry -> {
+            balance[0] = Money.add(balance[0], entry.change());
+            visitor.visit(entry, balance[0]);
+        });
+        return balance[0];
+    }
+
+    /**
+     * Same history as {@link #streamHistory}, but fetched {@code pageSize} entries at a time
+     * for interactive display.
+     */
+    public HistoryPager pageHistory(LocalDate from, LocalDate to, int pageSize) {
+        return from.isAfter(to)
+                ? new HistoryPager(incomeDAO, expenseDAO, to, from, pageSize)
+                : new HistoryPager(incomeDAO, expenseDAO, from, to, pageSize);
+    }
+
+    @FunctionalInterface
+    public interface HistoryVisitor {
+        void visit(LedgerEntry entry, long balance);
+    }
+}
@@ -0,0 +1,67 @@
+package com.finance_manager.service;
+
+import com.finance_manager.dao.DaoFactory;
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.model.MonthlySummaryRow;
+import com.finance_manager.model.SummaryDrift;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Access to the {@code monthly_summary} rollup that the income and expense services keep in
+ * step with every write, plus the drift check and rebuild used when it is suspected to be stale.
+ */
+public class MonthlySummaryService {
+    private final com.finance_manager.interfaces.MonthlySummaryDAO summaryDAO;
+
+    public MonthlySummaryService() throws DatabaseOperationException {
+        this.summaryDAO = DaoFactory.getInstance().monthlySummaryDAO();
+    }
+
+    public List<MonthlySummaryRow> getMonth(int year, int month) throws DatabaseOperationException {
+        return summaryDAO.fetchByMonth(year, month);
+    }
+
+    public List<MonthlySummaryRow> getMonthlyTotals(YearMonth from, YearMonth to) throws DatabaseOperationException {
+        return summaryDAO.fetchMonthlyTotals(from, to);
+    }
+
+    void applyDeltas(List<MonthlySummaryRow> deltas) throws DatabaseOperationException {
+        summaryDAO.applyDeltas(deltas);
+    }
+
+    /**
+     * Recomputes the rollup from the base tables and lists every row that disagrees with it.
+     */
+    public List<SummaryDrift> verify() throws DatabaseOperationException {
+        Map<String, MonthlySummaryRow> actual = new HashMap<>();
+        for (MonthlySummaryRow row : summaryDAO.fetchAll()) {
+            actual.put(row.key(), row);
+        }
+
+        List<SummaryDrift> drift = new ArrayList<>();
+        for (MonthlySummaryRow expected : summaryDAO.computeFromBaseTables()) {
+            MonthlySummaryRow stored = actual.remove(expected.key());
+            long storedTotal = stored == null ? 0 : stored.total();
+            long storedCount = stored == null ? 0 : stored.count();
+            if (expected.total() != storedTotal || expected.count() != storedCount) {
+                drift.add(new SummaryDrift(expected.year(), expected.month(), expected.kind(), expected.label(),
+                        expected.total(), storedTotal, expected.count(), storedCount));
+            }
+        }
+        // Whatever is left exists only in the rollup.
+        for (MonthlySummaryRow stale : actual.values()) {
+            drift.add(new SummaryDrift(stale.year(), stale.month(), stale.kind(), stale.label(),
+                    0, stale.total(), 0, stale.count()));
+        }
+        return drift;
+    }
+
+    public void rebuild() throws DatabaseOperationException {
+        summaryDAO.rebuild();
+    }
+}
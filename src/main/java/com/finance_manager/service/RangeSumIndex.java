@@ -0,0 +1,206 @@
+package com.finance_manager.service;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.model.MonthlyReport;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory income and expense totals per day, held in Fenwick (binary indexed) trees over the
+ * epoch day, so the total of any date range is answered in O(log days) without a query.
+ * <p>
+ * {@link #rebuild} fills it with one streaming scan of each table; afterwards the services keep
+ * it current through {@link com.finance_manager.interfaces.AmountChangeListener}. Until a
+ * rebuild has completed with no write landing in the middle of it, {@link #isReady()} is false
+ * and callers should query the database instead. Writes made by other processes are not seen,
+ * so with a maximum age the index also stops being ready that long after its last rebuild.
+ */
+public class RangeSumIndex {
+    /** Dates the full-table scan covers; the MySQL DATE range. */
+    private static final LocalDate SCAN_FROM = LocalDate.of(1000, 1, 1);
+    private static final LocalDate SCAN_TO = LocalDate.of(9999, 12, 31);
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final long maxAgeNanos;
+    private DayTree income = new DayTree();
+    private DayTree expense = new DayTree();
+    private volatile boolean ready;
+    private volatile long builtAt;
+    private boolean changedDuringRebuild;
+
+    public RangeSumIndex() {
+        this(Duration.ZERO);
+    }
+
+    /**
+     * @param maxAge how long a rebuild stays ready; zero for as long as the process runs
+     */
+    public RangeSumIndex(Duration maxAge) {
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    public boolean isReady() {
+        return ready && (maxAgeNanos <= 0 || System.nanoTime() - builtAt < maxAgeNanos);
+    }
+
+    public void addIncome(LocalDate date, long delta) {
+        add(true, date, delta);
+    }
+
+    public void addExpense(LocalDate date, long delta) {
+        add(false, date, delta);
+    }
+
+    private void add(boolean isIncome, LocalDate date, long delta) {
+        lock.writeLock().lock();
+        try {
+            (isIncome ? income : expense).add(Math.toIntExact(date.toEpochDay()), delta);
+            changedDuringRebuild = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Income and expense totals over the inclusive range, read under one lock so both come from
+     * the same state of the index.
+     */
+    public MonthlyReport reportBetween(LocalDate from, LocalDate to) {
+        int fromDay = Math.toIntExact(from.toEpochDay());
+        int toDay = Math.toIntExact(to.toEpochDay());
+        lock.readLock().lock();
+        try {
+            return new MonthlyReport(income.sum(fromDay, toDay), expense.sum(fromDay, toDay));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the contents with a fresh scan of both tables. If a write is reported while the
+     * scan runs, the scan may or may not include it, so it is repeated; after a few attempts the
+     * index is left not ready and the caller should try again later.
+     *
+     * @return whether the index is ready
+     */
+    public boolean rebuild(IncomeService incomeService, ExpenseService expenseService) throws DatabaseOperationException {
+        for (int attempt = 0; attempt < MAX_REBUILD_ATTEMPTS; attempt++) {
+            lock.writeLock().lock();
+            try {
+                ready = false;
+                changedDuringRebuild = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            DayTree scannedIncome = new DayTree();
+            DayTree scannedExpense = new DayTree();
+            incomeService.scanIncomeByDateRange(SCAN_FROM, SCAN_TO, (id, epochDay, amount, label) -> scannedIncome.addValue(epochDay, amount));
+            expenseService.scanExpenseByDateRange(SCAN_FROM, SCAN_TO, (id, epochDay, amount, label) -> scannedExpense.addValue(epochDay, amount));
+            scannedIncome.buildTree();
+            scannedExpense.buildTree();
+
+            lock.writeLock().lock();
+            try {
+                if (!changedDuringRebuild) {
+                    income = scannedIncome;
+                    expense = scannedExpense;
+                    builtAt = System.nanoTime();
+                    ready = true;
+                    return true;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fenwick tree over a window of epoch days that grows as dates outside it are added. Keeps
+     * the per-day values next to the tree so growing is a linear rebuild.
+     */
+    private static final class DayTree {
+        private static final int INITIAL_DAYS = 1024;
+        private static final int MARGIN_DAYS = 366;
+
+        private int origin;
+        private long[] values = new long[0];
+        private long[] tree = new long[1];
+
+        /** Adds to the per-day values only; call {@link #buildTree()} once done. */
+        void addValue(int day, long delta) {
+            cover(day);
+            values[day - origin] += delta;
+        }
+
+        void add(int day, long delta) {
+            if (cover(day)) {
+                buildTree();
+            }
+            values[day - origin] += delta;
+            for (int i = day - origin + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        long sum(int fromDay, int toDay) {
+            if (fromDay > toDay) {
+                int tmp = fromDay;
+                fromDay = toDay;
+                toDay = tmp;
+            }
+            int from = Math.max(fromDay - origin, 0);
+            int to = Math.min(toDay - origin, values.length - 1);
+            return from > to ? 0 : prefix(to + 1) - prefix(from);
+        }
+
+        /** Sum of the first {@code count} days of the window. */
+        private long prefix(int count) {
+            long total = 0;
+            for (int i = count; i > 0; i -= i & -i) {
+                total += tree[i];
+            }
+            return total;
+        }
+
+        void buildTree() {
+            tree = new long[values.length + 1];
+            System.arraycopy(values, 0, tree, 1, values.length);
+            for (int i = 1; i < tree.length; i++) {
+                int parent = i + (i & -i);
+                if (parent < tree.length) {
+                    tree[parent] += tree[i];
+                }
+            }
+        }
+
+        /**
+         * Widens the window to include {@code day}. Returns whether it had to, in which case the
+         * tree is stale until rebuilt.
+         */
+        private boolean cover(int day) {
+            if (values.length == 0) {
+                origin = day - MARGIN_DAYS;
+                values = new long[INITIAL_DAYS];
+                return true;
+            }
+            int end = origin + values.length;
+            if (day >= origin && day < end) {
+                return false;
+            }
+            int newOrigin = Math.min(origin, day - MARGIN_DAYS);
+            int newEnd = Math.max(end, day + MARGIN_DAYS);
+            long[] grown = new long[Math.max(values.length * 2, newEnd - newOrigin)];
+            System.arraycopy(values, 0, grown, origin - newOrigin, values.length);
+            origin = newOrigin;
+            values = grown;
+            return true;
+        }
+    }
+}
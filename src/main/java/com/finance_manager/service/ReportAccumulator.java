@@ -0,0 +1,58 @@
+package com.finance_manager.service;
+
+import com.finance_manager.model.LedgerEntry;
+import com.finance_manager.model.Money;
+import com.finance_manager.model.MonthlyReport;
+import com.finance_manager.model.MonthlySummaryRow;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds a {@link MonthlyReport} with its breakdown from rows that are already being read for
+ * another purpose, such as the detailed history, so the report needs no queries of its own.
+ * Amounts are in cents.
+ */
+public class ReportAccumulator {
+    private final Map<String, Long> bySource = new HashMap<>();
+    private final Map<String, Long> byCategory = new HashMap<>();
+    private long totalIncome;
+    private long totalExpense;
+
+    public void addIncome(String source, long amount) {
+        bySource.merge(source == null ? MonthlySummaryRow.INCOME_FALLBACK_LABEL : source, amount, Money::add);
+        totalIncome = Money.add(totalIncome, amount);
+    }
+
+    public void addExpense(String category, long amount) {
+        byCategory.merge(category == null ? MonthlySummaryRow.EXPENSE_FALLBACK_LABEL : category, amount, Money::add);
+        totalExpense = Money.add(totalExpense, amount);
+    }
+
+    /**
+     * Adds one history row, e.g. from the visitor that prints it.
+     */
+    public void add(LedgerEntry entry) {
+        if (LedgerEntry.INCOME.equals(entry.type())) {
+            addIncome(entry.label(), entry.change());
+        } else {
+            addExpense(entry.label(), -entry.change());
+        }
+    }
+
+    public MonthlyReport toReport() {
+        MonthlyReport report = new MonthlyReport(totalIncome, totalExpense);
+        report.setIncomeBySource(largestFirst(bySource));
+        report.setExpenseByCategory(largestFirst(byCategory));
+        return report;
+    }
+
+    private static Map<String, Long> largestFirst(Map<String, Long> totals) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        totals.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
+}
@@ -0,0 +1,140 @@
+package com.finance_manager.service;
+
+import com.finance_manager.model.MonthlyReport;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of generated reports, keyed by the inclusive date range they cover.
+ * <p>
+ * Entries are dropped when a write touches a date inside their range (see
+ * {@link #invalidate(LocalDate)}), when they outlive the optional TTL, or when the cache is
+ * full and they are the least recently used. A load that overlaps an invalidation is returned
+ * to its caller but not stored, so a stale report can never be cached after the write.
+ * <p>
+ * The cache keeps its own copy of each report and hands every caller a fresh copy, so a caller
+ * that changes its report does not change anyone else's.
+ */
+public class ReportCache {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries;
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param ttl maximum age of an entry, or {@link Duration#ZERO} to keep entries until evicted
+     */
+    public ReportCache(int maxEntries, Duration ttl) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache size must be greater than zero.");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > ReportCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached report for the range, or starts {@code loader} and caches its result
+     * once it completes.
+     */
+    public CompletableFuture<MonthlyReport> get(String kind, LocalDate from, LocalDate to,
+                                                Supplier<CompletableFuture<MonthlyReport>> loader) {
+        Key key = new Key(kind, from, to);
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && !isExpired(entry, System.nanoTime())) {
+                hits.increment();
+                return CompletableFuture.completedFuture(entry.report().copy());
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.increment();
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+
+        return loader.get().thenApply(report -> {
+            synchronized (this) {
+                if (loadGeneration == generation) {
+                    entries.put(key, new Entry(report.copy(), System.nanoTime()));
+                }
+            }
+            return report;
+        });
+    }
+
+    /**
+     * Ages are compared as differences of {@link System#nanoTime()}, which may be negative, so the
+     * no-TTL case is checked first rather than encoded as a far-future expiry.
+     */
+    private boolean isExpired(Entry entry, long now) {
+        return ttlNanos > 0 && now - entry.loadedAtNanos() >= ttlNanos;
+    }
+
+    /**
+     * Drops every cached report whose range contains {@code date}.
+     */
+    public synchronized void invalidate(LocalDate date) {
+        generation++;
+        Iterator<Key> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            Key key = it.next();
+            if (!date.isBefore(key.from) && !date.isAfter(key.to)) {
+                it.remove();
+                invalidations.increment();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        invalidations.add(entries.size());
+        entries.clear();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(), entries.size(), maxEntries);
+    }
+
+    public record Stats(long hits, long misses, long evictions, long invalidations, int size, int maxSize) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ReportCache{hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, invalidations=%d, size=%d/%d}",
+                    hits, misses, hitRate() * 100, evictions, invalidations, size, maxSize);
+        }
+    }
+
+    private record Key(String kind, LocalDate from, LocalDate to) {
+    }
+
+    private record Entry(MonthlyReport report, long loadedAtNanos) {
+    }
+}
@@ -1,45 +1,277 @@
 package com.finance_manager.service;
 
 import com.finance_manager.exceptions.DatabaseOperationException;
-import com.finance_manager.model.Income;
-import com.finance_manager.model.Expense;
+import com.finance_manager.model.ColumnarLedger;
+import com.finance_manager.model.Money;
 import com.finance_manager.model.MonthlyReport;
+import com.finance_manager.model.MonthlySummaryRow;
+import com.finance_manager.model.TrendPeriod;
+import com.finance_manager.model.TrendPoint;
+import com.finance_manager.model.TrendReport;
+import com.finance_manager.utils.ThreadExecutors;
 
+import java.time.DateTimeException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ReportService {
+    private static final int DEFAULT_CACHE_SIZE = 256;
+    /** Matches the default connection pool size, so queued queries wait here rather than in the pool. */
+    private static final int DEFAULT_QUERY_CONCURRENCY = 10;
+    private static final long RANGE_INDEX_RETRY_MIN_MILLIS = 1_000;
+    private static final long RANGE_INDEX_RETRY_MAX_MILLIS = 60_000;
+
     private final IncomeService incomeService;
     private final ExpenseService expenseService;
+    private final MonthlySummaryService summaryService;
+    private final ReportCache cache;
+    private final ExecutorService queryExecutor;
+    private final RangeSumIndex rangeIndex;
+    private final AtomicBoolean rangeIndexRebuildPending = new AtomicBoolean();
+
+    /**
+     * With {@code FINANCE_RANGE_INDEX=true}, also keeps a {@link RangeSumIndex} for custom date
+     * range totals, built in the background. It is off by default because building it scans both
+     * tables, which short-lived processes would pay for without ever using it. It is rescanned
+     * once older than {@code FINANCE_RANGE_INDEX_MAX_AGE_SECONDS} (default 300, 0 for never), so
+     * writes from other processes show up within that time.
+     */
+    public ReportService(IncomeService incomeService, ExpenseService expenseService) throws DatabaseOperationException {
+        this(incomeService, expenseService, new MonthlySummaryService(),
+                new ReportCache(DEFAULT_CACHE_SIZE, Duration.ZERO), DEFAULT_QUERY_CONCURRENCY,
+                Boolean.parseBoolean(env("FINANCE_RANGE_INDEX", "false"))
+                        ? new RangeSumIndex(Duration.ofSeconds(Long.parseLong(env("FINANCE_RANGE_INDEX_MAX_AGE_SECONDS", "300"))))
+                        : null);
+    }
+
+    public ReportService(IncomeService incomeService, ExpenseService expenseService,
+                         MonthlySummaryService summaryService, ReportCache cache, int queryConcurrency) {
+        this(incomeService, expenseService, summaryService, cache, queryConcurrency, null);
+    }
 
-    public ReportService(IncomeService incomeService, ExpenseService expenseService) {
+    /**
+     * Reports are served from {@code cache} until a write through either service touches a date
+     * they cover. Queries run on virtual threads when the JVM has them, and then the connection
+     * pool bounds how many reach the database at once; otherwise on {@code queryConcurrency}
+     * platform threads.
+     * If {@code rangeIndex} is not null it is rebuilt on a query thread right away and kept
+     * current from the services' writes; custom date range totals come from it once it is ready.
+     * A rebuild that fails is retried with backoff, and one that has gone stale is rebuilt on
+     * the next custom range query.
+     */
+    public ReportService(IncomeService incomeService, ExpenseService expenseService,
+                         MonthlySummaryService summaryService, ReportCache cache, int queryConcurrency,
+                         RangeSumIndex rangeIndex) {
         this.incomeService = incomeService;
         this.expenseService = expenseService;
+        this.summaryService = summaryService;
+        this.cache = cache;
+        this.queryExecutor = ThreadExecutors.virtualOrFixed("report-query", queryConcurrency);
+        incomeService.addChangeListener(cache::invalidate);
+        expenseService.addChangeListener(cache::invalidate);
+        this.rangeIndex = rangeIndex;
+        if (rangeIndex != null) {
+            // Listen before scanning, so a write during the scan is noticed and triggers a rescan.
+            incomeService.addAmountListener(rangeIndex::addIncome);
+            expenseService.addAmountListener(rangeIndex::addExpense);
+            scheduleRangeIndexRebuild();
+        }
     }
 
+    /**
+     * Reads the month from the {@code monthly_summary} rollup, so the cost does not depend on
+     * how many transactions the month holds. The breakdown maps are filled as well.
+     */
     public MonthlyReport generateMonthlyReport(int year, int month) throws DatabaseOperationException {
-        List<Income> incomes = incomeService.getIncomeByMonth(year, month);
-        List<Expense> expenses = expenseService.getExpenseByMonth(year, month);
+        return await(generateMonthlyReportAsync(year, month));
+    }
+
+    public CompletableFuture<MonthlyReport> generateMonthlyReportAsync(int year, int month) {
+        LocalDate start;
+        try {
+            start = LocalDate.of(year, month, 1);
+        } catch (DateTimeException e) {
+            return CompletableFuture.failedFuture(new DatabaseOperationException("Invalid year/month: " + year + "-" + month));
+        }
+        return cache.get("MONTH", start, start.plusMonths(1).minusDays(1),
+                () -> query(() -> loadMonthlyReport(year, month)));
+    }
+
+    /**
+     * Builds the reports for every month concurrently, in the order given.
+     */
+    public CompletableFuture<List<MonthlyReport>> generateMonthlyReportsAsync(List<YearMonth> months) {
+        List<CompletableFuture<MonthlyReport>> futures = new ArrayList<>(months.size());
+        for (YearMonth month : months) {
+            futures.add(generateMonthlyReportAsync(month.getYear(), month.getMonthValue()));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<MonthlyReport> reports = new ArrayList<>(futures.size());
+            for (CompletableFuture<MonthlyReport> future : futures) {
+                reports.add(future.join());
+            }
+            return reports;
+        });
+    }
 
-        double totalIncome = incomes.stream().mapToDouble(Income::getAmount).sum();
-        double totalExpense = expenses.stream().mapToDouble(Expense::getAmount).sum();
+    private MonthlyReport loadMonthlyReport(int year, int month) throws DatabaseOperationException {
+        Map<String, Long> bySource = new LinkedHashMap<>();
+        Map<String, Long> byCategory = new LinkedHashMap<>();
+        long totalIncome = 0;
+        long totalExpense = 0;
+        for (MonthlySummaryRow row : summaryService.getMonth(year, month)) {
+            if (MonthlySummaryRow.INCOME.equals(row.kind())) {
+                bySource.put(row.label(), row.total());
+                totalIncome = Money.add(totalIncome, row.total());
+            } else {
+                byCategory.put(row.label(), row.total());
+                totalExpense = Money.add(totalExpense, row.total());
+            }
+        }
 
-        return new MonthlyReport(totalIncome, totalExpense);
+        MonthlyReport report = new MonthlyReport(totalIncome, totalExpense);
+        report.setIncomeBySource(bySource);
+        report.setExpenseByCategory(byCategory);
+        return report;
     }
 
     public MonthlyReport generateCustomDateReport(LocalDate from, LocalDate to) throws DatabaseOperationException {
-        if (from.isAfter(to)) {
-            LocalDate tmp = from;
-            from = to;
-            to = tmp;
+        return await(generateCustomDateReportAsync(from, to));
+    }
+
+    /**
+     * Answered from the range index when it is ready. Otherwise the income and expense totals
+     * are independent queries and run in parallel.
+     */
+    public CompletableFuture<MonthlyReport> generateCustomDateReportAsync(LocalDate from, LocalDate to) {
+        LocalDate start = from.isAfter(to) ? to : from;
+        LocalDate end = from.isAfter(to) ? from : to;
+        if (rangeIndex != null) {
+            if (rangeIndex.isReady()) {
+                return CompletableFuture.completedFuture(rangeIndex.reportBetween(start, end));
+            }
+            scheduleRangeIndexRebuild();
         }
-        List<Income> incomes = incomeService.getIncomeByDateRange(from, to);
-        List<Expense> expenses = expenseService.getExpenseByDateRange(from, to);
+        return cache.get("RANGE", start, end, () -> {
+            CompletableFuture<Long> income = query(() -> incomeService.getTotalIncomeByDateRange(start, end));
+            CompletableFuture<Long> expense = query(() -> expenseService.getTotalExpenseByDateRange(start, end));
+            return income.thenCombine(expense, MonthlyReport::new);
+        });
+    }
+
+    /**
+     * Same as {@link #generateMonthlyReport(int, int)}; the rollup already carries the breakdown.
+     */
+    public MonthlyReport generateMonthlyBreakdown(int year, int month) throws DatabaseOperationException {
+        return generateMonthlyReport(year, month);
+    }
+
+    /**
+     * Like {@link #generateCustomDateReport(LocalDate, LocalDate)} but also fills the per-category
+     * and per-source breakdown. The totals are derived from the grouped rows, so this is still
+     * two queries, run in parallel.
+     */
+    public MonthlyReport generateCustomDateBreakdown(LocalDate from, LocalDate to) throws DatabaseOperationException {
+        return await(generateCustomDateBreakdownAsync(from, to));
+    }
+
+    public CompletableFuture<MonthlyReport> generateCustomDateBreakdownAsync(LocalDate from, LocalDate to) {
+        LocalDate start = from.isAfter(to) ? to : from;
+        LocalDate end = from.isAfter(to) ? from : to;
+        return cache.get("RANGE_BREAKDOWN", start, end, () -> {
+            CompletableFuture<Map<String, Long>> income = query(() -> incomeService.getIncomeTotalsBySource(start, end));
+            CompletableFuture<Map<String, Long>> expense = query(() -> expenseService.getExpenseTotalsByCategory(start, end));
+            return income.thenCombine(expense, (bySource, byCategory) -> {
+                long totalIncome = bySource.values().stream().reduce(0L, Money::add);
+                long totalExpense = byCategory.values().stream().reduce(0L, Money::add);
+
+                MonthlyReport report = new MonthlyReport(totalIncome, totalExpense);
+                report.setIncomeBySource(bySource);
+                report.setExpenseByCategory(byCategory);
+                return report;
+            });
+        });
+    }
+
+    /**
+     * Income, expense, savings and cumulative savings per month, quarter or year for the
+     * inclusive span of months. The whole span is one grouped query on the rollup, whatever its length.
+     */
+    public TrendReport generateTrend(YearMonth from, YearMonth to, TrendPeriod granularity) throws DatabaseOperationException {
+        return await(generateTrendAsync(from, to, granularity));
+    }
+
+    public CompletableFuture<TrendReport> generateTrendAsync(YearMonth from, YearMonth to, TrendPeriod granularity) {
+        YearMonth start = granularity.startOf(from.isAfter(to) ? to : from);
+        YearMonth end = from.isAfter(to) ? from : to;
+        return query(() -> buildTrend(summaryService.getMonthlyTotals(start, end), start, end, granularity));
+    }
+
+    private static TrendReport buildTrend(List<MonthlySummaryRow> totals, YearMonth start, YearMonth end, TrendPeriod granularity) {
+        List<TrendPoint> points = new ArrayList<>();
+        int row = 0;
+        long cumulative = 0;
+        for (YearMonth bucket = start; !bucket.isAfter(end); bucket = bucket.plusMonths(granularity.months())) {
+            YearMonth next = bucket.plusMonths(granularity.months());
+            long income = 0;
+            long expense = 0;
+            // Rows are in month order, so each bucket takes the rows up to the next bucket's start.
+            for (; row < totals.size(); row++) {
+                MonthlySummaryRow r = totals.get(row);
+                if (!YearMonth.of(r.year(), r.month()).isBefore(next)) {
+                    break;
+                }
+                if (MonthlySummaryRow.INCOME.equals(r.kind())) {
+                    income = Money.add(income, r.total());
+                } else {
+                    expense = Money.add(expense, r.total());
+                }
+            }
+            long savings = Math.subtractExact(income, expense);
+            cumulative = Money.add(cumulative, savings);
+            points.add(new TrendPoint(granularity.label(bucket), bucket, income, expense, savings, cumulative));
+        }
+        return new TrendReport(granularity, start, end, points);
+    }
 
-        double totalIncome = incomes.stream().mapToDouble(Income::getAmount).sum();
-        double totalExpense = expenses.stream().mapToDouble(Expense::getAmount).sum();
+    /**
+     * Loads every transaction in the inclusive range into a {@link ColumnarLedger}. Rows are read
+     * as primitive columns, never as {@code Income}/{@code Expense} objects.
+     */
+    public ColumnarLedger loadLedger(LocalDate from, LocalDate to) throws DatabaseOperationException {
+        LocalDate start = from.isAfter(to) ? to : from;
+        LocalDate end = from.isAfter(to) ? from : to;
+        ColumnarLedger.Builder builder = new ColumnarLedger.Builder();
+        incomeService.scanIncomeByDateRange(start, end, builder::addIncome);
+        expenseService.scanExpenseByDateRange(start, end, builder::addExpense);
+        return builder.build();
+    }
+
+    /**
+     * Report with breakdown for the inclusive range, computed from an already loaded ledger
+     * without touching the database. The range should lie within what the ledger was loaded for.
+     */
+    public MonthlyReport generateReport(ColumnarLedger ledger, LocalDate from, LocalDate to) {
+        int fromDay = (int) Math.min(from.toEpochDay(), to.toEpochDay());
+        int toDay = (int) Math.max(from.toEpochDay(), to.toEpochDay());
 
-        return new MonthlyReport(totalIncome, totalExpense);
+        MonthlyReport report = new MonthlyReport(ledger.sum(ColumnarLedger.INCOME, fromDay, toDay),
+                ledger.sum(ColumnarLedger.EXPENSE, fromDay, toDay));
+        report.setIncomeBySource(ledger.labelTotals(ColumnarLedger.INCOME, fromDay, toDay));
+        report.setExpenseByCategory(ledger.labelTotals(ColumnarLedger.EXPENSE, fromDay, toDay));
+        return report;
     }
 
     public IncomeService getIncomeService() {
@@ -49,5 +281,113 @@ public class ReportService {
     public ExpenseService getExpenseService() {
         return expenseService;
     }
-}
 
+    public MonthlySummaryService getSummaryService() {
+        return summaryService;
+    }
+
+    /**
+     * Rescans both tables into the range index, e.g. after rows were changed outside the services.
+     * Completes immediately if this service has no index.
+     */
+    public CompletableFuture<Void> rebuildRangeIndexAsync() {
+        if (rangeIndex == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return query(() -> {
+            if (!rangeIndex.rebuild(incomeService, expenseService)) {
+                scheduleRangeIndexRebuild();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Starts a background rebuild unless one is already running or waiting to be retried.
+     */
+    private void scheduleRangeIndexRebuild() {
+        if (rangeIndexRebuildPending.compareAndSet(false, true)) {
+            rebuildRangeIndex(queryExecutor, RANGE_INDEX_RETRY_MIN_MILLIS);
+        }
+    }
+
+    /**
+     * Rebuilds on {@code executor}; if writes keep landing during the scan or the scan fails, tries
+     * again after {@code retryDelayMillis}, doubling the delay each time up to a minute.
+     */
+    private void rebuildRangeIndex(Executor executor, long retryDelayMillis) {
+        Runnable attempt = () -> {
+            boolean ready;
+            try {
+                ready = rangeIndex.rebuild(incomeService, expenseService);
+            } catch (DatabaseOperationException | RuntimeException e) {
+                ready = false;
+            }
+            if (ready) {
+                rangeIndexRebuildPending.set(false);
+            } else {
+                rebuildRangeIndex(CompletableFuture.delayedExecutor(retryDelayMillis, TimeUnit.MILLISECONDS, queryExecutor),
+                        Math.min(retryDelayMillis * 2, RANGE_INDEX_RETRY_MAX_MILLIS));
+            }
+        };
+        try {
+            executor.execute(attempt);
+        } catch (RejectedExecutionException e) {
+            // shut down
+            rangeIndexRebuildPending.set(false);
+        }
+    }
+
+    public boolean isRangeIndexReady() {
+        return rangeIndex != null && rangeIndex.isReady();
+    }
+
+    public ReportCache.Stats getCacheStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * Drops every cached report, e.g. after the monthly summary was rebuilt outside the services.
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    public void shutdown() {
+        queryExecutor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> query(Query<T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return query.run();
+            } catch (DatabaseOperationException e) {
+                throw new CompletionException(e);
+            }
+        }, queryExecutor);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws DatabaseOperationException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof DatabaseOperationException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getProperty(name, System.getenv(name));
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    @FunctionalInterface
+    private interface Query<T> {
+        T run() throws DatabaseOperationException;
+    }
+}
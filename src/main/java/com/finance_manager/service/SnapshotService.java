@@ -0,0 +1,414 @@
+package com.finance_manager.service;
+
+import com.finance_manager.dao.DaoFactory;
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.exceptions.InvalidAmountException;
+import com.finance_manager.model.ColumnarLedger;
+import com.finance_manager.model.Expense;
+import com.finance_manager.model.Income;
+import com.finance_manager.model.MonthlySummaryRow;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Whole-ledger snapshots in a compact columnar binary file, for backups, cloning an environment
+ * and warming up analytics without replaying rows one statement at a time.
+ * <p>
+ * The file is little-endian: a {@value #HEADER_SIZE}-byte header (magic, version, row count,
+ * label count, body length, CRC-32C of the body) followed by blocks, each a type, a byte length
+ * and a payload padded to 8 bytes. The blocks are the label dictionary and one block per column:
+ * kind, id, epoch day, amount, label id ({@value #NO_LABEL} for none) and description. Incomes
+ * come first, then expenses, each in (date, id) order. Readers skip block types they do not know.
+ */
+public class SnapshotService {
+    private static final int MAGIC = 0x464D5353;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int BLOCK_HEADER_SIZE = 16;
+
+    private static final int BLOCK_LABELS = 1;
+    private static final int BLOCK_KINDS = 2;
+    private static final int BLOCK_IDS = 3;
+    private static final int BLOCK_DAYS = 4;
+    private static final int BLOCK_AMOUNTS = 5;
+    private static final int BLOCK_LABEL_IDS = 6;
+    private static final int BLOCK_DESCRIPTIONS = 7;
+
+    private static final int NO_LABEL = -1;
+    private static final int RESTORE_CHUNK_SIZE = 5000;
+    /** Dates a full export covers; the MySQL DATE range. */
+    private static final LocalDate FIRST_DAY = LocalDate.of(1000, 1, 1);
+    private static final LocalDate LAST_DAY = LocalDate.of(9999, 12, 31);
+
+    private final IncomeService incomeService;
+    private final ExpenseService expenseService;
+
+    public SnapshotService(IncomeService incomeService, ExpenseService expenseService) {
+        this.incomeService = incomeService;
+        this.expenseService = expenseService;
+    }
+
+    /**
+     * Writes every income and expense to {@code file}. Both are read in one read-only transaction,
+     * so the snapshot is consistent even while other writes go on. The snapshot is written next to
+     * it and renamed into place once complete, so an existing file is never left half-overwritten.
+     *
+     * @return the number of rows written
+     */
+    public int export(Path file) throws IOException, DatabaseOperationException {
+        Columns columns = new Columns();
+        DaoFactory.getInstance().inReadOnlyTransaction(() -> {
+            incomeService.streamIncomeByDateRange(FIRST_DAY, LAST_DAY, income -> columns.add(ColumnarLedger.INCOME,
+                    income.getId(), income.getDate(), income.getAmountCents(), income.getSource(), income.getDescription()));
+            expenseService.streamExpenseByDateRange(FIRST_DAY, LAST_DAY, expense -> columns.add(ColumnarLedger.EXPENSE,
+                    expense.getId(), expense.getDate(), expense.getAmountCents(), expense.getCategory(), expense.getDescription()));
+            return null;
+        });
+
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+        try (FileChannel out = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            CRC32C crc = new CRC32C();
+            out.position(HEADER_SIZE);
+            long bodyLength = writeBlock(out, crc, BLOCK_LABELS, columns.labelBlock())
+                    + writeBlock(out, crc, BLOCK_KINDS, ByteBuffer.wrap(columns.kinds, 0, columns.size))
+                    + writeBlock(out, crc, BLOCK_IDS, intBlock(columns.ids, columns.size))
+                    + writeBlock(out, crc, BLOCK_DAYS, intBlock(columns.epochDays, columns.size))
+                    + writeBlock(out, crc, BLOCK_AMOUNTS, longBlock(columns.amounts, columns.size))
+                    + writeBlock(out, crc, BLOCK_LABEL_IDS, intBlock(columns.labelIds, columns.size))
+                    + writeBlock(out, crc, BLOCK_DESCRIPTIONS, columns.descriptionBlock());
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(MAGIC).putInt(VERSION).putInt(columns.size).putInt(columns.labels.size())
+                    .putLong(bodyLength).putInt((int) crc.getValue()).putInt(0)
+                    .flip();
+            out.position(0);
+            writeFully(out, header);
+            out.force(true);
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return columns.size;
+    }
+
+    /**
+     * Maps {@code file} and copies its columns straight into a {@link ColumnarLedger}, without
+     * touching the database or decoding descriptions. Rows without a label get the same fallback
+     * labels as the database reads.
+     */
+    public ColumnarLedger load(Path file) throws IOException {
+        Snapshot snapshot = Snapshot.open(file);
+        int rows = snapshot.rows;
+        byte[] kinds = new byte[rows];
+        snapshot.block(BLOCK_KINDS, rows).get(kinds);
+        int[] ids = snapshot.ints(BLOCK_IDS);
+        int[] epochDays = snapshot.ints(BLOCK_DAYS);
+        long[] amounts = new long[rows];
+        snapshot.block(BLOCK_AMOUNTS, (long) rows * Long.BYTES).asLongBuffer().get(amounts);
+        int[] labelIds = snapshot.ints(BLOCK_LABEL_IDS);
+
+        List<String> labels = new ArrayList<>(Arrays.asList(snapshot.labels()));
+        int incomeFallback = NO_LABEL;
+        int expenseFallback = NO_LABEL;
+        for (int i = 0; i < rows; i++) {
+            if (labelIds[i] != NO_LABEL) {
+                continue;
+            }
+            if (kinds[i] == ColumnarLedger.EXPENSE) {
+                if (expenseFallback == NO_LABEL) {
+                    expenseFallback = labelIndex(labels, MonthlySummaryRow.EXPENSE_FALLBACK_LABEL);
+                }
+                labelIds[i] = expenseFallback;
+            } else {
+                if (incomeFallback == NO_LABEL) {
+                    incomeFallback = labelIndex(labels, MonthlySummaryRow.INCOME_FALLBACK_LABEL);
+                }
+                labelIds[i] = incomeFallback;
+            }
+        }
+        return ColumnarLedger.of(ids, epochDays, amounts, kinds, labelIds, labels.toArray(new String[0]));
+    }
+
+    /**
+     * Inserts every row of {@code file} through the income and expense services in large batches,
+     * so the monthly summary and report caches stay in step. Rows get new ids; restore into empty
+     * tables to get back the original data set.
+     * <p>
+     * Each batch commits on its own. If one fails, the exception says how many rows were already
+     * committed, so the restore can be cleaned up or resumed from there.
+     *
+     * @return the number of rows restored
+     */
+    public int restore(Path file) throws IOException, InvalidAmountException, DatabaseOperationException {
+        Snapshot snapshot = Snapshot.open(file);
+        int rows = snapshot.rows;
+        ByteBuffer kinds = snapshot.block(BLOCK_KINDS, rows);
+        int[] epochDays = snapshot.ints(BLOCK_DAYS);
+        long[] amounts = new long[rows];
+        snapshot.block(BLOCK_AMOUNTS, (long) rows * Long.BYTES).asLongBuffer().get(amounts);
+        int[] labelIds = snapshot.ints(BLOCK_LABEL_IDS);
+        String[] labels = snapshot.labels();
+        ByteBuffer descriptions = snapshot.block(BLOCK_DESCRIPTIONS, -1);
+        int[] descriptionLengths = new int[rows];
+        descriptions.asIntBuffer().get(descriptionLengths);
+        descriptions.position(rows * Integer.BYTES);
+
+        List<Income> incomes = new ArrayList<>(Math.min(rows, RESTORE_CHUNK_SIZE));
+        List<Expense> expenses = new ArrayList<>(Math.min(rows, RESTORE_CHUNK_SIZE));
+        int committed = 0;
+        try {
+            for (int i = 0; i < rows; i++) {
+                String label = labelIds[i] == NO_LABEL ? null : labels[labelIds[i]];
+                String description = null;
+                if (descriptionLengths[i] >= 0) {
+                    byte[] bytes = new byte[descriptionLengths[i]];
+                    descriptions.get(bytes);
+                    description = new String(bytes, StandardCharsets.UTF_8);
+                }
+                LocalDate date = LocalDate.ofEpochDay(epochDays[i]);
+                if (kinds.get(i) == ColumnarLedger.EXPENSE) {
+                    expenses.add(new Expense(amounts[i], label, description, date));
+                    if (expenses.size() == RESTORE_CHUNK_SIZE) {
+                        expenseService.addExpenses(expenses);
+                        committed += expenses.size();
+                        expenses = new ArrayList<>(RESTORE_CHUNK_SIZE);
+                    }
+                } else {
+                    incomes.add(new Income(amounts[i], label, description, date));
+                    if (incomes.size() == RESTORE_CHUNK_SIZE) {
+                        incomeService.addIncomes(incomes);
+                        committed += incomes.size();
+                        incomes = new ArrayList<>(RESTORE_CHUNK_SIZE);
+                    }
+                }
+            }
+            if (!incomes.isEmpty()) {
+                incomeService.addIncomes(incomes);
+                committed += incomes.size();
+            }
+            if (!expenses.isEmpty()) {
+                expenseService.addExpenses(expenses);
+            }
+        } catch (DatabaseOperationException e) {
+            throw new DatabaseOperationException(restoreFailure(committed, rows, e), e);
+        } catch (InvalidAmountException e) {
+            throw new InvalidAmountException(restoreFailure(committed, rows, e), e);
+        }
+        return rows;
+    }
+
+    private static String restoreFailure(int committed, int rows, Exception cause) {
+        return "Restore failed after " + committed + " of " + rows + " rows were committed: " + cause.getMessage();
+    }
+
+    private static int labelIndex(List<String> labels, String label) {
+        int index = labels.indexOf(label);
+        if (index < 0) {
+            labels.add(label);
+            index = labels.size() - 1;
+        }
+        return index;
+    }
+
+    private static long writeBlock(FileChannel out, CRC32C crc, int type, ByteBuffer payload) throws IOException {
+        long length = payload.remaining();
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(type).putInt(0).putLong(length)
+                .flip();
+        ByteBuffer padding = ByteBuffer.allocate((int) (-length & 7));
+        for (ByteBuffer part : new ByteBuffer[]{header, payload, padding}) {
+            crc.update(part.duplicate());
+            writeFully(out, part);
+        }
+        return BLOCK_HEADER_SIZE + length + padding.capacity();
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static ByteBuffer intBlock(int[] values, int size) {
+        ByteBuffer block = ByteBuffer.allocate(size * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        block.asIntBuffer().put(values, 0, size);
+        return block;
+    }
+
+    private static ByteBuffer longBlock(long[] values, int size) {
+        ByteBuffer block = ByteBuffer.allocate(size * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        block.asLongBuffer().put(values, 0, size);
+        return block;
+    }
+
+    /**
+     * A mapped snapshot whose header and checksum have been verified, with its blocks located.
+     */
+    private static final class Snapshot {
+        private final int rows;
+        private final int labelCount;
+        private final Map<Integer, ByteBuffer> blocks = new HashMap<>();
+
+        private Snapshot(int rows, int labelCount) {
+            this.rows = rows;
+            this.labelCount = labelCount;
+        }
+
+        static Snapshot open(Path file) throws IOException {
+            MappedByteBuffer map;
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (in.size() > Integer.MAX_VALUE) {
+                    throw new IOException("Snapshot too large to map: " + file);
+                }
+                if (in.size() < HEADER_SIZE) {
+                    throw new IOException("Not a snapshot file: " + file);
+                }
+                // The mapping stays valid after the channel is closed.
+                map = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            }
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getInt(0) != MAGIC) {
+                throw new IOException("Not a snapshot file: " + file);
+            }
+            if (map.getInt(4) != VERSION) {
+                throw new IOException("Unsupported snapshot version " + map.getInt(4) + ": " + file);
+            }
+            Snapshot snapshot = new Snapshot(map.getInt(8), map.getInt(12));
+            long bodyLength = map.getLong(16);
+            if (snapshot.rows < 0 || bodyLength != map.capacity() - HEADER_SIZE) {
+                throw new IOException("Truncated snapshot: " + file);
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(map.slice(HEADER_SIZE, (int) bodyLength));
+            if ((int) crc.getValue() != map.getInt(24)) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+            int position = HEADER_SIZE;
+            while (position < map.capacity()) {
+                int type = map.getInt(position);
+                long length = map.getLong(position + 8);
+                int start = position + BLOCK_HEADER_SIZE;
+                if (length < 0 || start + length > map.capacity()) {
+                    throw new IOException("Corrupt snapshot block " + type + ": " + file);
+                }
+                snapshot.blocks.put(type, map.slice(start, (int) length));
+                position = (int) (start + length + (-length & 7));
+            }
+            return snapshot;
+        }
+
+        /**
+         * The payload of a block, checked to be {@code expectedLength} bytes unless that is negative.
+         */
+        ByteBuffer block(int type, long expectedLength) throws IOException {
+            ByteBuffer block = blocks.get(type);
+            if (block == null || (expectedLength >= 0 && block.capacity() != expectedLength)) {
+                throw new IOException("Snapshot block " + type + " is missing or has the wrong size");
+            }
+            return block.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        int[] ints(int type) throws IOException {
+            int[] values = new int[rows];
+            block(type, (long) rows * Integer.BYTES).asIntBuffer().get(values);
+            return values;
+        }
+
+        String[] labels() throws IOException {
+            ByteBuffer block = block(BLOCK_LABELS, -1);
+            String[] labels = new String[labelCount];
+            for (int i = 0; i < labelCount; i++) {
+                byte[] bytes = new byte[block.getShort() & 0xFFFF];
+                block.get(bytes);
+                labels[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return labels;
+        }
+    }
+
+    /**
+     * Growable column arrays filled during export.
+     */
+    private static final class Columns {
+        private int size;
+        private byte[] kinds = new byte[1024];
+        private int[] ids = new int[1024];
+        private int[] epochDays = new int[1024];
+        private long[] amounts = new long[1024];
+        private int[] labelIds = new int[1024];
+        private byte[][] descriptions = new byte[1024][];
+        private final List<String> labels = new ArrayList<>();
+        private final Map<String, Integer> dictionary = new HashMap<>();
+
+        void add(byte kind, int id, LocalDate date, long amount, String label, String description) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                kinds = Arrays.copyOf(kinds, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+                labelIds = Arrays.copyOf(labelIds, capacity);
+                descriptions = Arrays.copyOf(descriptions, capacity);
+            }
+            kinds[size] = kind;
+            ids[size] = id;
+            epochDays[size] = Math.toIntExact(date.toEpochDay());
+            amounts[size] = amount;
+            labelIds[size] = label == null ? NO_LABEL : dictionary.computeIfAbsent(label, name -> {
+                labels.add(name);
+                return labels.size() - 1;
+            });
+            descriptions[size] = description == null ? null : description.getBytes(StandardCharsets.UTF_8);
+            size++;
+        }
+
+        ByteBuffer labelBlock() {
+            List<byte[]> encoded = new ArrayList<>(labels.size());
+            int length = 0;
+            for (String label : labels) {
+                byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                length += Short.BYTES + bytes.length;
+            }
+            ByteBuffer block = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            for (byte[] bytes : encoded) {
+                block.putShort((short) bytes.length).put(bytes);
+            }
+            return block.flip();
+        }
+
+        /**
+         * One length per row ({@code -1} for none), then all description bytes back to back.
+         */
+        ByteBuffer descriptionBlock() {
+            long length = (long) size * Integer.BYTES;
+            for (int i = 0; i < size; i++) {
+                length += descriptions[i] == null ? 0 : descriptions[i].length;
+            }
+            ByteBuffer block = ByteBuffer.allocate(Math.toIntExact(length)).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < size; i++) {
+                block.putInt(descriptions[i] == null ? -1 : descriptions[i].length);
+            }
+            for (int i = 0; i < size; i++) {
+                if (descriptions[i] != null) {
+                    block.put(descriptions[i]);
+                }
+            }
+            return block.flip();
+        }
+    }
+}
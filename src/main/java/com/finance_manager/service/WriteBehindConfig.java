@@ -0,0 +1,47 @@
+package com.finance_manager.service;
+
+/**
+ * Settings for the optional write-behind mode of {@link ExpenseService} and {@link IncomeService}.
+ *
+ * @param enabled            when {@code false} every add is a synchronous insert
+ * @param queueCapacity      records waiting to be written before submitters are held back
+ * @param maxBatchSize       most records written in one transaction
+ * @param maxDelayMillis     longest a record waits for more records to join its batch
+ * @param offerTimeoutMillis how long a submitter waits for room in a full queue before failing
+ */
+public record WriteBehindConfig(boolean enabled,
+                                int queueCapacity,
+                                int maxBatchSize,
+                                long maxDelayMillis,
+                                long offerTimeoutMillis) {
+
+    public static final WriteBehindConfig DISABLED = new WriteBehindConfig(false, 1, 1, 0, 0);
+
+    public WriteBehindConfig {
+        if (enabled && (queueCapacity <= 0 || maxBatchSize <= 0 || maxDelayMillis < 0 || offerTimeoutMillis < 0)) {
+            throw new IllegalArgumentException("Invalid write-behind configuration: " + queueCapacity + "/"
+                    + maxBatchSize + "/" + maxDelayMillis + "/" + offerTimeoutMillis);
+        }
+    }
+
+    /**
+     * Reads {@code FINANCE_WRITE_BEHIND} (true/false, default false) and the optional
+     * {@code FINANCE_WRITE_BEHIND_QUEUE_CAPACITY}, {@code _BATCH_SIZE}, {@code _MAX_DELAY_MS} and
+     * {@code _OFFER_TIMEOUT_MS} from system properties or the environment.
+     */
+    public static WriteBehindConfig fromEnv() {
+        if (!Boolean.parseBoolean(env("FINANCE_WRITE_BEHIND", "false"))) {
+            return DISABLED;
+        }
+        return new WriteBehindConfig(true,
+                Integer.parseInt(env("FINANCE_WRITE_BEHIND_QUEUE_CAPACITY", "10000")),
+                Integer.parseInt(env("FINANCE_WRITE_BEHIND_BATCH_SIZE", "500")),
+                Long.parseLong(env("FINANCE_WRITE_BEHIND_MAX_DELAY_MS", "20")),
+                Long.parseLong(env("FINANCE_WRITE_BEHIND_OFFER_TIMEOUT_MS", "5000")));
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getProperty(name, System.getenv(name));
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
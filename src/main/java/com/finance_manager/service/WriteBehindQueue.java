@@ -0,0 +1,232 @@
+package com.finance_manager.service;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.metrics.MetricsRegistry;
+import com.finance_manager.metrics.OperationMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded queue of records drained by one background writer in groups, each group written by a
+ * single {@link BatchWriter#write} call (one transaction), so many small adds share one commit.
+ * If a group fails, its records are retried one per transaction, so a bad record fails only its
+ * own future.
+ * <p>
+ * A group is written once it holds {@code maxBatchSize} records or its first record has waited
+ * {@code maxDelayMillis}. Submitters block while the queue is full, and fail after the offer
+ * timeout. {@link #close()} writes everything already accepted before returning; a JVM shutdown
+ * hook does the same if the queue was never closed.
+ */
+public class WriteBehindQueue<T> implements AutoCloseable {
+    private final String name;
+    private final BatchWriter<T> writer;
+    private final ToIntFunction<T> idOf;
+    private final WriteBehindConfig config;
+    private final BlockingQueue<Pending<T>> queue;
+    private final Thread writerThread;
+    private final Thread shutdownHook;
+    private final OperationMetrics flushMetrics;
+    /**
+     * Submitters hold the read lock from the {@link #closed} check through the offer, and closing
+     * takes the write lock, so once {@code closed} is set no offer is still in flight.
+     */
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+
+    public WriteBehindQueue(String name, WriteBehindConfig config, BatchWriter<T> writer, ToIntFunction<T> idOf) {
+        this.name = name;
+        this.config = config;
+        this.writer = writer;
+        this.idOf = idOf;
+        this.queue = new ArrayBlockingQueue<>(config.queueCapacity());
+        this.flushMetrics = MetricsRegistry.getInstance().operation("writeBehind." + name + ".flush");
+        this.writerThread = new Thread(this::run, name + "-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        this.shutdownHook = new Thread(this::close, name + "-writer-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Queues {@code item}, waiting for room if the queue is full. The future completes with the
+     * generated id once the item's group has committed, or exceptionally if it could not be written.
+     */
+    public CompletableFuture<Integer> submit(T item) {
+        return enqueue(new Pending<>(item, new CompletableFuture<>()));
+    }
+
+    /**
+     * Completes once every item submitted before this call has been written (or has failed).
+     */
+    public CompletableFuture<Integer> flush() {
+        return enqueue(new Pending<>(null, new CompletableFuture<>()));
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    private CompletableFuture<Integer> enqueue(Pending<T> pending) {
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                return CompletableFuture.failedFuture(new DatabaseOperationException("Write-behind queue '" + name + "' is closed."));
+            }
+            if (!queue.offer(pending, config.offerTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(new DatabaseOperationException("Write-behind queue '" + name
+                        + "' is full (" + config.queueCapacity() + " records); timed out after "
+                        + config.offerTimeoutMillis() + " ms."));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(new DatabaseOperationException("Interrupted while queueing a write.", e));
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        return pending.future();
+    }
+
+    private void run() {
+        List<Pending<T>> group = new ArrayList<>(config.maxBatchSize());
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Pending<T> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.maxDelayMillis());
+                while (group.size() < config.maxBatchSize() && !group.get(group.size() - 1).isBarrier()) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending<T> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+            } catch (InterruptedException e) {
+                // nobody interrupts the writer on purpose; stop accepting and drain what is queued
+                markClosed();
+            }
+            writeGroup(group);
+            group.clear();
+        }
+    }
+
+    private void writeGroup(List<Pending<T>> group) {
+        if (group.isEmpty()) {
+            return;
+        }
+        List<T> items = new ArrayList<>(group.size());
+        for (Pending<T> pending : group) {
+            if (!pending.isBarrier()) {
+                items.add(pending.item());
+            }
+        }
+        Exception failure = items.isEmpty() ? null : write(items);
+        if (failure != null && items.size() > 1) {
+            // The group rolled back as a whole; write the records one by one so only the bad ones fail.
+            for (Pending<T> pending : group) {
+                if (!pending.isBarrier()) {
+                    complete(pending, write(List.of(pending.item())));
+                }
+            }
+        } else {
+            for (Pending<T> pending : group) {
+                if (!pending.isBarrier()) {
+                    complete(pending, failure);
+                }
+            }
+        }
+        // Barriers complete last, after every record queued before them has been settled.
+        for (Pending<T> pending : group) {
+            if (pending.isBarrier()) {
+                pending.future().complete(0);
+            }
+        }
+    }
+
+    private Exception write(List<T> items) {
+        Exception failure = null;
+        long start = System.nanoTime();
+        try {
+            writer.write(items);
+        } catch (Exception e) {
+            failure = e;
+        }
+        flushMetrics.record(System.nanoTime() - start, items.size(), failure != null);
+        return failure;
+    }
+
+    private void complete(Pending<T> pending, Exception failure) {
+        if (failure == null) {
+            pending.future().complete(idOf.applyAsInt(pending.item()));
+        } else {
+            pending.future().completeExceptionally(failure instanceof DatabaseOperationException ? failure
+                    : new DatabaseOperationException("Write-behind write failed: " + failure.getMessage(), failure));
+        }
+    }
+
+    /**
+     * Stops accepting records and blocks until every accepted record has been written.
+     */
+    @Override
+    public void close() {
+        if (!markClosed()) {
+            return;
+        }
+        // The writer notices within its poll interval; interrupting it could abort a JDBC call.
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Only left over if the writer died; otherwise it has already drained the queue.
+        List<Pending<T>> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        writeGroup(leftover);
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // already shutting down, which is when the hook itself calls close()
+        }
+    }
+
+    /**
+     * @return false if the queue was already closed
+     */
+    private boolean markClosed() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            return true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+    }
+
+    @FunctionalInterface
+    public interface BatchWriter<T> {
+        /**
+         * Writes the whole group in one transaction, setting each record's generated id.
+         */
+        void write(List<T> items) throws Exception;
+    }
+
+    private record Pending<T>(T item, CompletableFuture<Integer> future) {
+        boolean isBarrier() {
+            return item == null;
+        }
+    }
+}
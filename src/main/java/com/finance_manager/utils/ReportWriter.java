@@ -0,0 +1,438 @@
+package com.finance_manager.utils;
+
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.model.LedgerEntry;
+import com.finance_manager.model.Money;
+import com.finance_manager.model.MonthlyReport;
+import com.finance_manager.service.LedgerService;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Streams transaction history and report summaries as console text, CSV or JSON.
+ * <p>
+ * Rows are formatted field by field into one reused {@link StringBuilder} and copied into a
+ * private character buffer that reaches the underlying writer only when full, on
+ * {@link #flush()} and on {@link #close()}. No format string is parsed and no string is built
+ * per row, so the cost of a row is a few character copies.
+ * <p>
+ * A JSON document is an array with one object per section, e.g.
+ * {@code [{"type":"history","rows":[...]},{"type":"summary",...}]}; amounts are JSON numbers
+ * with two decimals. In CSV each section has its own header line and sections are separated by
+ * a blank line.
+ */
+public final class ReportWriter implements Closeable, Flushable {
+    public enum Format { CONSOLE, CSV, JSON }
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String CSV_HISTORY_HEADER = "id,date,type,label,description,change,balance";
+    private static final String CSV_SUMMARY_HEADER = "item,label,amount";
+
+    private final Writer out;
+    private final boolean closeOut;
+    private final Format format;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder field = new StringBuilder(64);
+    private int position;
+    private int sections;
+    private int rows;
+
+    public ReportWriter(Writer out, Format format, boolean closeOut) {
+        this.out = out;
+        this.format = format;
+        this.closeOut = closeOut;
+    }
+
+    public static ReportWriter toFile(Path file, Format format) throws IOException {
+        return new ReportWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), format, true);
+    }
+
+    /**
+     * Writes to {@code stream}, e.g. {@code System.out}, which is flushed but left open on close.
+     */
+    public static ReportWriter toStream(OutputStream stream, Format format) {
+        return new ReportWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), format, false);
+    }
+
+    public void beginHistory() throws IOException {
+        rows = 0;
+        switch (format) {
+            case CONSOLE -> {
+                left("ID", 7);
+                left("Date", 13);
+                left("Type", 13);
+                left("Description", 31);
+                right("Change", 12);
+                write(' ');
+                right("Balance", 12);
+                write('\n');
+            }
+            case CSV -> {
+                beginCsvSection();
+                write(CSV_HISTORY_HEADER);
+                write('\n');
+            }
+            case JSON -> {
+                beginJsonSection();
+                write("{\"type\":\"history\",\"rows\":[");
+            }
+        }
+    }
+
+    /**
+     * One history row. Matches {@code LedgerService.HistoryVisitor}, so it can be passed as
+     * {@code writer::historyRow}; I/O errors are thrown as {@link UncheckedIOException}.
+     */
+    public void historyRow(LedgerEntry entry, long balance) {
+        try {
+            switch (format) {
+                case CONSOLE -> {
+                    field.setLength(0);
+                    field.append(entry.id());
+                    left(field, 7);
+                    field.setLength(0);
+                    appendDate(field, entry.date());
+                    left(field, 13);
+                    left(entry.type(), 13);
+                    field.setLength(0);
+                    field.append(entry.label()).append(" - ").append(entry.description());
+                    left(field, 31);
+                    amount(entry.change());
+                    right(field, 12);
+                    write(' ');
+                    amount(balance);
+                    right(field, 12);
+                }
+                case CSV -> {
+                    field.setLength(0);
+                    field.append(entry.id()).append(',');
+                    appendDate(field, entry.date());
+                    field.append(',').append(entry.type()).append(',');
+                    write(field);
+                    csv(entry.label());
+                    write(',');
+                    csv(entry.description());
+                    write(',');
+                    amount(entry.change());
+                    field.append(',');
+                    Money.appendTo(field, balance);
+                    write(field);
+                }
+                case JSON -> {
+                    if (rows > 0) {
+                        write(',');
+                    }
+                    field.setLength(0);
+                    field.append("{\"id\":").append(entry.id()).append(",\"date\":\"");
+                    appendDate(field, entry.date());
+                    field.append("\",\"type\":\"").append(entry.type()).append("\",\"label\":");
+                    write(field);
+                    json(entry.label());
+                    write(",\"description\":");
+                    json(entry.description());
+                    write(",\"change\":");
+                    amount(entry.change());
+                    field.append(",\"balance\":");
+                    Money.appendTo(field, balance);
+                    field.append('}');
+                    write(field);
+                }
+            }
+            if (format != Format.JSON) {
+                write('\n');
+            }
+            rows++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void endHistory() throws IOException {
+        if (format == Format.JSON) {
+            write("]}");
+        } else if (format == Format.CONSOLE && rows == 0) {
+            write("No transactions in this period.\n");
+        }
+    }
+
+    /**
+     * Streams the whole history of the inclusive range as one section.
+     *
+     * @return the number of rows written
+     */
+    public int history(LedgerService ledgerService, LocalDate from, LocalDate to) throws IOException, DatabaseOperationException {
+        beginHistory();
+        try {
+            ledgerService.streamHistory(from, to, this::historyRow);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        endHistory();
+        return rows;
+    }
+
+    /**
+     * Totals and the per-source and per-category breakdowns of {@code report}.
+     */
+    public void summary(String title, MonthlyReport report) throws IOException {
+        switch (format) {
+            case CONSOLE -> {
+                write("--- ");
+                write(title);
+                write(" ---\n");
+                consoleTotal("Total Income : ", report.getTotalIncomeCents());
+                consoleTotal("Total Expense: ", report.getTotalExpenseCents());
+                consoleTotal("Savings      : ", report.getSavingsCents());
+                consoleBreakdown("Income by source", report.getIncomeBySource());
+                consoleBreakdown("Expense by category", report.getExpenseByCategory());
+            }
+            case CSV -> {
+                beginCsvSection();
+                write(CSV_SUMMARY_HEADER);
+                write('\n');
+                csvTotal("total_income", null, report.getTotalIncomeCents());
+                csvTotal("total_expense", null, report.getTotalExpenseCents());
+                csvTotal("savings", null, report.getSavingsCents());
+                for (Map.Entry<String, Long> source : report.getIncomeBySource().entrySet()) {
+                    csvTotal("income_source", source.getKey(), source.getValue());
+                }
+                for (Map.Entry<String, Long> category : report.getExpenseByCategory().entrySet()) {
+                    csvTotal("expense_category", category.getKey(), category.getValue());
+                }
+            }
+            case JSON -> {
+                beginJsonSection();
+                write("{\"type\":\"summary\",\"title\":");
+                json(title);
+                write(",\"totalIncome\":");
+                amount(report.getTotalIncomeCents());
+                field.append(",\"totalExpense\":");
+                Money.appendTo(field, report.getTotalExpenseCents());
+                field.append(",\"savings\":");
+                Money.appendTo(field, report.getSavingsCents());
+                write(field);
+                write(",\"incomeBySource\":");
+                jsonTotals(report.getIncomeBySource());
+                write(",\"expenseByCategory\":");
+                jsonTotals(report.getExpenseByCategory());
+                write('}');
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /**
+     * Finishes the JSON document if one was started, then flushes, and closes the underlying
+     * writer if this writer owns it.
+     */
+    @Override
+    public void close() throws IOException {
+        if (format == Format.JSON) {
+            write(sections == 0 ? "[]\n" : "]\n");
+        }
+        flush();
+        if (closeOut) {
+            out.close();
+        }
+    }
+
+    private void beginJsonSection() throws IOException {
+        write(sections++ == 0 ? '[' : ',');
+    }
+
+    private void beginCsvSection() throws IOException {
+        if (sections++ > 0) {
+            write('\n');
+        }
+    }
+
+    private void consoleTotal(String title, long cents) throws IOException {
+        write(title);
+        amount(cents);
+        write(field);
+        write('\n');
+    }
+
+    private void consoleBreakdown(String title, Map<String, Long> totals) throws IOException {
+        if (totals.isEmpty()) {
+            return;
+        }
+        write("--- ");
+        write(title);
+        write(" ---\n");
+        for (Map.Entry<String, Long> total : totals.entrySet()) {
+            left(total.getKey(), 31);
+            amount(total.getValue());
+            right(field, 12);
+            write('\n');
+        }
+    }
+
+    private void csvTotal(String item, String label, long cents) throws IOException {
+        write(item);
+        write(',');
+        csv(label);
+        write(',');
+        amount(cents);
+        write(field);
+        write('\n');
+    }
+
+    private void jsonTotals(Map<String, Long> totals) throws IOException {
+        write('{');
+        boolean first = true;
+        for (Map.Entry<String, Long> total : totals.entrySet()) {
+            if (!first) {
+                write(',');
+            }
+            first = false;
+            json(total.getKey());
+            write(':');
+            amount(total.getValue());
+            write(field);
+        }
+        write('}');
+    }
+
+    /** Leaves {@code cents} formatted in {@link #field}. */
+    private void amount(long cents) {
+        field.setLength(0);
+        Money.appendTo(field, cents);
+    }
+
+    private static void appendDate(StringBuilder sb, LocalDate date) {
+        int year = date.getYear();
+        if (year < 1000 || year > 9999) {
+            sb.append(date);
+            return;
+        }
+        sb.append(year).append('-');
+        twoDigits(sb, date.getMonthValue());
+        sb.append('-');
+        twoDigits(sb, date.getDayOfMonth());
+    }
+
+    private static void twoDigits(StringBuilder sb, int value) {
+        sb.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    private void csv(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            write(value);
+            return;
+        }
+        write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                write('"');
+            }
+            write(c);
+        }
+        write('"');
+    }
+
+    private void json(String value) throws IOException {
+        if (value == null) {
+            write("null");
+            return;
+        }
+        write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> write("\\\"");
+                case '\\' -> write("\\\\");
+                case '\n' -> write("\\n");
+                case '\r' -> write("\\r");
+                case '\t' -> write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        write("\\u00");
+                        write(Character.forDigit(c >> 4, 16));
+                        write(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        write(c);
+                    }
+                }
+            }
+        }
+        write('"');
+    }
+
+    /** Writes {@code text} and pads it with spaces to {@code width}, with at least one space. */
+    private void left(CharSequence text, int width) throws IOException {
+        write(text);
+        for (int i = text.length(); i < width - 1; i++) {
+            write(' ');
+        }
+        write(' ');
+    }
+
+    private void right(CharSequence text, int width) throws IOException {
+        for (int i = text.length(); i < width; i++) {
+            write(' ');
+        }
+        write(text);
+    }
+
+    private void write(char c) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = c;
+    }
+
+    private void write(CharSequence text) throws IOException {
+        int length = text.length();
+        int start = 0;
+        while (start < length) {
+            if (position == buffer.length) {
+                drain();
+            }
+            int end = Math.min(length, start + buffer.length - position);
+            if (text instanceof String s) {
+                s.getChars(start, end, buffer, position);
+            } else if (text instanceof StringBuilder sb) {
+                sb.getChars(start, end, buffer, position);
+            } else {
+                for (int i = start; i < end; i++) {
+                    buffer[position + i - start] = text.charAt(i);
+                }
+            }
+            position += end - start;
+            start = end;
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
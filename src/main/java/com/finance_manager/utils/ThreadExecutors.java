@@ -0,0 +1,47 @@
+package com.finance_manager.utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for work that mostly blocks on JDBC or I/O. Virtual threads are used when the JVM has
+ * them (Java 21+); the project compiles for Java 17, so they are looked up reflectively.
+ */
+public final class ThreadExecutors {
+
+    private ThreadExecutors() {
+    }
+
+    /**
+     * {@code Executors.newVirtualThreadPerTaskExecutor()}, or {@code null} if this JVM lacks it.
+     */
+    public static ExecutorService virtualThreadPerTask() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Fixed pool of daemon threads named {@code namePrefix-1}, {@code namePrefix-2}, ...
+     */
+    public static ExecutorService fixedDaemonPool(String namePrefix, int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * A virtual thread per task if available, otherwise {@link #fixedDaemonPool} with
+     * {@code platformThreads} threads.
+     */
+    public static ExecutorService virtualOrFixed(String namePrefix, int platformThreads) {
+        ExecutorService virtual = virtualThreadPerTask();
+        return virtual != null ? virtual : fixedDaemonPool(namePrefix, platformThreads);
+    }
+}
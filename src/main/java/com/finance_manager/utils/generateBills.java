@@ -1,5 +1,302 @@
 package com.finance_manager.utils;
 
+import com.finance_manager.exceptions.DatabaseOperationException;
+import com.finance_manager.model.LedgerEntry;
+import com.finance_manager.model.Money;
+import com.finance_manager.model.MonthlySummaryRow;
+import com.finance_manager.model.TrendPeriod;
+import com.finance_manager.model.TrendPoint;
+import com.finance_manager.service.LedgerService;
+import com.finance_manager.service.ReportService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Month-end statement engine. For every month of a span it writes one statement file: the
+ * month's transactions with a running balance, totals per income source and expense category,
+ * and the month's savings and closing balance.
+ * <p>
+ * Opening balances come from one rollup query up front, after which the months are independent
+ * and are rendered in parallel on a fork-join pool. Each statement is streamed from the ledger
+ * straight into a buffered writer; only the per-label totals of the month in progress are kept.
+ * Every month being rendered holds a database connection for its history stream, so parallelism
+ * stays below the connection pool size.
+ */
 public class generateBills {
+    public enum Format {
+        TEXT("txt"), CSV("csv");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    private static final int DEFAULT_PARALLELISM = Math.min(Runtime.getRuntime().availableProcessors(), 4);
+    /** Start of the history counted into the first month's opening balance; the MySQL DATE range. */
+    private static final LocalDate FIRST_DAY = LocalDate.of(1000, 1, 1);
+    private static final String CSV_HEADER = "section,date,type,label,description,amount,balance";
+
+    private final LedgerService ledgerService;
+    private final ReportService reportService;
+    private final int parallelism;
+
+    public generateBills(LedgerService ledgerService, ReportService reportService) {
+        this(ledgerService, reportService, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * @param parallelism most months rendered at once
+     */
+    public generateBills(LedgerService ledgerService, ReportService reportService, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.ledgerService = ledgerService;
+        this.reportService = reportService;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Writes {@code statement-YYYY-MM.txt} or {@code .csv} into {@code directory} for every month
+     * from {@code from} to {@code to} inclusive, replacing existing files.
+     *
+     * @return the files written, in month order
+     */
+    public List<Path> generate(YearMonth from, YearMonth to, Path directory, Format format) throws IOException, DatabaseOperationException {
+        YearMonth start = from.isAfter(to) ? to : from;
+        YearMonth end = from.isAfter(to) ? from : to;
+        Files.createDirectories(directory);
+
+        long opening = reportService.generateCustomDateReport(FIRST_DAY, start.atDay(1).minusDays(1)).getSavingsCents();
+        List<TrendPoint> months = reportService.generateTrend(start, end, TrendPeriod.MONTH).points();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Future<Path>> statements = new ArrayList<>(months.size());
+            for (TrendPoint month : months) {
+                long monthOpening = Math.subtractExact(Money.add(opening, month.cumulativeSavings()), month.savings());
+                statements.add(pool.submit(() -> writeStatement(month.start(), monthOpening, directory, format)));
+            }
+            List<Path> files = new ArrayList<>(statements.size());
+            for (Future<Path> statement : statements) {
+                files.add(await(statement));
+            }
+            return files;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Path writeStatement(YearMonth month, long opening, Path directory, Format format) throws IOException, DatabaseOperationException {
+        Path file = directory.resolve("statement-" + month + "." + format.extension);
+        Map<String, Long> incomeBySource = new HashMap<>();
+        Map<String, Long> expenseByCategory = new HashMap<>();
+        long[] totals = new long[2];
+        StringBuilder line = new StringBuilder(160);
+
+        try (Writer out = Files.newBufferedWriter(file)) {
+            if (format == Format.CSV) {
+                out.write(CSV_HEADER);
+                out.write('\n');
+                csvTotal(out, line, "OPENING", opening);
+            } else {
+                out.write("Statement for " + month + "\n");
+                textTotal(out, line, "Opening balance", opening);
+                out.write(String.format("\n%-10s  %-7s  %-20s  %12s  %12s  %s\n", "Date", "Type", "Label", "Amount", "Balance", "Description"));
+            }
+
+            long net = ledgerService.streamHistory(month.atDay(1), month.atEndOfMonth(), (entry, balance) -> {
+                boolean income = LedgerEntry.INCOME.equals(entry.type());
+                String label = entry.label() != null ? entry.label() : (income ? MonthlySummaryRow.INCOME_FALLBACK_LABEL : MonthlySummaryRow.EXPENSE_FALLBACK_LABEL);
+                if (income) {
+                    totals[0] = Money.add(totals[0], entry.change());
+                    incomeBySource.merge(label, entry.change(), Money::add);
+                } else {
+                    totals[1] = Math.subtractExact(totals[1], entry.change());
+                    expenseByCategory.merge(label, -entry.change(), Money::add);
+                }
+                line.setLength(0);
+                if (format == Format.CSV) {
+                    csvRow(line, "TX", entry.date().toString(), entry.type(), label, entry.description(), entry.change(), Money.add(opening, balance));
+                } else {
+                    textRow(line, entry, label, Money.add(opening, balance));
+                }
+                write(out, line);
+            });
+
+            if (format == Format.CSV) {
+                for (Map.Entry<String, Long> source : largestFirst(incomeBySource)) {
+                    line.setLength(0);
+                    csvRow(line, "INCOME_SOURCE", "", "", source.getKey(), null, source.getValue(), null);
+                    write(out, line);
+                }
+                for (Map.Entry<String, Long> category : largestFirst(expenseByCategory)) {
+                    line.setLength(0);
+                    csvRow(line, "EXPENSE_CATEGORY", "", "", category.getKey(), null, category.getValue(), null);
+                    write(out, line);
+                }
+                csvTotal(out, line, "TOTAL_INCOME", totals[0]);
+                csvTotal(out, line, "TOTAL_EXPENSE", totals[1]);
+                csvTotal(out, line, "SAVINGS", net);
+                csvTotal(out, line, "CLOSING", Money.add(opening, net));
+            } else {
+                out.write("\nIncome by source\n");
+                textBreakdown(out, line, incomeBySource);
+                out.write("Expense by category\n");
+                textBreakdown(out, line, expenseByCategory);
+                out.write('\n');
+                textTotal(out, line, "Total income", totals[0]);
+                textTotal(out, line, "Total expense", totals[1]);
+                textTotal(out, line, "Savings", net);
+                textTotal(out, line, "Closing balance", Money.add(opening, net));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return file;
+    }
+
+    private static void textRow(StringBuilder line, LedgerEntry entry, String label, long balance) {
+        pad(line.append(entry.date()), 12);
+        pad(line.append(entry.type()), 21);
+        pad(line.append(label.length() > 20 ? label.substring(0, 20) : label), 43);
+        amount(line, entry.change(), 12);
+        line.append("  ");
+        amount(line, balance, 12);
+        line.append("  ");
+        if (entry.description() != null) {
+            line.append(entry.description());
+        }
+        line.append('\n');
+    }
+
+    private static void textBreakdown(Writer out, StringBuilder line, Map<String, Long> totals) throws IOException {
+        if (totals.isEmpty()) {
+            out.write("  (none)\n");
+            return;
+        }
+        for (Map.Entry<String, Long> total : largestFirst(totals)) {
+            line.setLength(0);
+            pad(line.append("  ").append(total.getKey()), 24);
+            amount(line, total.getValue(), 12);
+            line.append('\n');
+            write(out, line);
+        }
+    }
+
+    private static List<Map.Entry<String, Long>> largestFirst(Map<String, Long> totals) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(totals.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return entries;
+    }
+
+    private static void textTotal(Writer out, StringBuilder line, String title, long cents) throws IOException {
+        line.setLength(0);
+        pad(line.append(title), 16);
+        line.append(": ");
+        Money.appendTo(line, cents);
+        line.append('\n');
+        write(out, line);
+    }
+
+    private static void csvTotal(Writer out, StringBuilder line, String section, long cents) throws IOException {
+        line.setLength(0);
+        csvRow(line, section, "", "", "", null, cents, null);
+        write(out, line);
+    }
+
+    private static void csvRow(StringBuilder line, String section, String date, String type, String label, String description,
+                               long amount, Long balance) {
+        line.append(section).append(',').append(date).append(',').append(type).append(',');
+        csvField(line, label);
+        line.append(',');
+        csvField(line, description);
+        line.append(',');
+        Money.appendTo(line, amount);
+        line.append(',');
+        if (balance != null) {
+            Money.appendTo(line, balance);
+        }
+        line.append('\n');
+    }
+
+    private static void csvField(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    /** Right-aligns an amount in {@code width} characters. */
+    private static void amount(StringBuilder line, long cents, int width) {
+        int start = line.length();
+        Money.appendTo(line, cents);
+        int padding = width - (line.length() - start);
+        for (int i = 0; i < padding; i++) {
+            line.insert(start, ' ');
+        }
+    }
+
+    /** Pads with spaces up to column {@code column}, always leaving at least one. */
+    private static void pad(StringBuilder line, int column) {
+        do {
+            line.append(' ');
+        } while (line.length() < column);
+    }
+
+    private static void write(Writer out, StringBuilder line) {
+        try {
+            out.append(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
+    private static Path await(Future<Path> statement) throws IOException, DatabaseOperationException {
+        try {
+            return statement.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating statements", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof DatabaseOperationException db) {
+                throw db;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Statement generation failed: " + cause.getMessage(), cause);
+        }
+    }
 }